@@ -0,0 +1,35 @@
+package com.example.demo.bench;
+
+import com.example.demo.DemoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the real application for benchmarks that need JPA/H2: random port, quiet logs,
+ * and a private in-memory database per context so benchmarks don't see each other's rows.
+ * Extra {@code key=value} properties override the defaults.
+ */
+final class BenchApp {
+    private BenchApp() { }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        Map<String, String> props = new LinkedHashMap<>();
+        props.put("server.port", "0");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("logging.level.root", "WARN");
+        props.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        // tokens die with the context: nothing to persist, and no file shared between contexts
+        props.put("app.jwt.revocation.snapshot-file", "");
+        for (String p : extraProperties) {
+            int eq = p.indexOf('=');
+            props.put(p.substring(0, eq), p.substring(eq + 1));
+        }
+        // as command-line args: they must win over application.properties (defaultProperties would not)
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .run(props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.bench;
+
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory vs. on-disk H2 (same URL settings as application-file.properties):
+ * cold start of the whole application on an empty database (Flyway migrations included),
+ * and post insert throughput through the batched JPA path.
+ */
+public class DatabaseModeBenchmark {
+    static final int BATCH = 100;
+
+    static String url(String mode, Path dir, int cacheSizeKb) {
+        return switch (mode) {
+            case "mem" -> "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+            case "file" -> "jdbc:h2:file:" + dir.resolve("demo").toAbsolutePath()
+                    + ";CACHE_SIZE=" + cacheSizeKb + ";PAGE_SIZE=16384;DB_CLOSE_ON_EXIT=FALSE";
+            default -> throw new IllegalArgumentException(mode);
+        };
+    }
+
+    @State(Scope.Thread)
+    public static class Startup {
+        @Param({"mem", "file"})
+        public String mode;
+
+        Path dir;
+        ConfigurableApplicationContext ctx;
+
+        @Setup(Level.Invocation)
+        public void freshDirectory() throws IOException {
+            dir = Files.createTempDirectory("h2-bench");
+        }
+
+        @TearDown(Level.Invocation)
+        public void stop() throws IOException {
+            if (ctx != null) ctx.close();
+            FileSystemUtils.deleteRecursively(dir);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Running {
+        @Param({"mem", "file"})
+        public String mode;
+
+        @Param({"65536"})
+        public int cacheSizeKb;
+
+        Path dir;
+        ConfigurableApplicationContext ctx;
+        PostRepository posts;
+        User author;
+
+        @Setup
+        public void start() throws IOException {
+            dir = Files.createTempDirectory("h2-bench");
+            ctx = BenchApp.start("spring.datasource.url=" + url(mode, dir, cacheSizeKb));
+            posts = ctx.getBean(PostRepository.class);
+            author = ctx.getBean(UserRepository.class)
+                    .save(User.builder().email("bench@example.com").password("not-a-real-hash").build());
+        }
+
+        @TearDown
+        public void stop() throws IOException {
+            ctx.close();
+            FileSystemUtils.deleteRecursively(dir);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public ConfigurableApplicationContext startup(Startup s) {
+        s.ctx = BenchApp.start("spring.datasource.url=" + url(s.mode, s.dir, 65536));
+        return s.ctx;
+    }
+
+    /** One transaction of {@value #BATCH} posts (JDBC-batched); scores are posts per second. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public List<Post> insertPosts(Running r) {
+        List<Post> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(Post.builder().title("Post " + i).content("lorem ipsum ".repeat(40)).user(r.author).build());
+        }
+        return r.posts.saveAll(batch);
+    }
+}
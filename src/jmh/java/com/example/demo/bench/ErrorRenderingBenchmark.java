@@ -0,0 +1,57 @@
+package com.example.demo.bench;
+
+import com.example.demo.api.dto.ErrorResponse;
+import com.example.demo.config.ErrorBodies;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one 404 body: the old LinkedHashMap + OffsetDateTime + Jackson path, the same shape as a
+ * record, and ErrorBodies' cached bytes. Allocation is the point here, so run it with the gc
+ * profiler and compare gc.alloc.rate.norm:
+ * {@code ./gradlew jmh -Pjmh.includes=ErrorRenderingBenchmark -Pjmh.profilers=gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorRenderingBenchmark {
+
+    private ObjectMapper mapper;
+    private String path;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        path = "/wp-admin/setup-config.php";
+    }
+
+    /** What GlobalExceptionHandler.base(...) + the message converter used to do. */
+    @Benchmark
+    public byte[] linkedHashMap() throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", OffsetDateTime.now().toString());
+        body.put("status", 404);
+        body.put("error", "Not Found");
+        body.put("message", "No handler found");
+        body.put("path", path);
+        return mapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] record() throws Exception {
+        return mapper.writeValueAsBytes(new ErrorResponse(404, "Not Found", "No handler found", path,
+                ErrorBodies.timestamp(), null));
+    }
+
+    @Benchmark
+    public byte[] cachedBytes() {
+        return ErrorBodies.render(HttpStatus.NOT_FOUND, "No handler found", path);
+    }
+}
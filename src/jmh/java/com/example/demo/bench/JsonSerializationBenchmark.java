@@ -0,0 +1,66 @@
+package com.example.demo.bench;
+
+import com.example.demo.api.dto.PostSummary;
+import com.example.demo.api.dto.UserResponse;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Jackson cost of the response shapes: User entity graph with posts, Post lists, and the listing DTOs. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int posts;
+
+    @Param({"1000"})
+    public int contentChars;
+
+    private ObjectMapper mapper;
+    private User user;
+    private List<Post> postList;
+    private UserResponse userResponse;
+
+    @Setup
+    public void setup() {
+        // same defaults (JavaTimeModule, no timestamps) as the Boot-configured mapper
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        user = User.builder().id(1L).email("bench@example.com").firstName("Bench").lastName("Mark")
+                .password("x").build();
+        String content = "x".repeat(contentChars);
+        List<PostSummary> summaries = new ArrayList<>();
+        for (long i = 0; i < posts; i++) {
+            Post p = Post.builder().id(i).title("Post " + i).content(content)
+                    .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+            user.addPost(p);
+            summaries.add(new PostSummary(i, 1L, p.getTitle(), p.getCreatedAt(), content.substring(0, Math.min(content.length(), PostSummary.EXCERPT_LENGTH))));
+        }
+        postList = user.getPosts();
+        userResponse = UserResponse.of(user, summaries);
+    }
+
+    @Benchmark
+    public byte[] userEntityWithPosts() throws Exception {
+        return mapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] postEntities() throws Exception {
+        return mapper.writeValueAsBytes(postList);
+    }
+
+    @Benchmark
+    public byte[] userResponseWithSummaries() throws Exception {
+        return mapper.writeValueAsBytes(userResponse);
+    }
+}
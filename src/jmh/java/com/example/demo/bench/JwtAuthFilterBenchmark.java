@@ -0,0 +1,68 @@
+package com.example.demo.bench;
+
+import com.example.demo.auth.AuthenticatedUser;
+import com.example.demo.auth.JwtAuthFilter;
+import com.example.demo.auth.JwtService;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/** Per-request cost of JwtAuthFilter for a valid (cached) token, a garbage token and no token. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthFilterBenchmark {
+
+    private ConfigurableApplicationContext ctx;
+    private JwtAuthFilter filter;
+    private String validHeader;
+
+    @Setup
+    public void setup() {
+        ctx = BenchApp.start();
+        String hash = ctx.getBean(PasswordEncoder.class).encode("secret123");
+        User user = ctx.getBean(UserRepository.class).save(User.builder().email("bench@example.com").password(hash).build());
+        validHeader = "Bearer " + ctx.getBean(JwtService.class).generate(AuthenticatedUser.of(user));
+        filter = ctx.getBean(JwtAuthFilter.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Authentication validToken() throws Exception {
+        return filter(validHeader);
+    }
+
+    @Benchmark
+    public Authentication invalidToken() throws Exception {
+        return filter("Bearer not.a.token");
+    }
+
+    @Benchmark
+    public Authentication noToken() throws Exception {
+        return filter(null);
+    }
+
+    private Authentication filter(String authorization) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/me");
+        if (authorization != null) req.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
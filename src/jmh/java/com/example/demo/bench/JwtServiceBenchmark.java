@@ -0,0 +1,73 @@
+package com.example.demo.bench;
+
+import com.example.demo.auth.JwtKeyRing;
+import com.example.demo.auth.JwtService;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing, and validation: the old parser-per-call path vs. a reused parser vs. JwtService
+ * with its verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private Key key;
+    private String token;
+    private JwtParser sharedParser;
+
+    private JwtService jwt;
+    private String serviceToken;
+
+    @Setup
+    public void setup() {
+        key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        token = Jwts.builder()
+                .setSubject("bench@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        sharedParser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        jwt = new JwtService(JwtKeyRing.generated(SignatureAlgorithm.RS256), new SimpleMeterRegistry(), 10_000, 0.1,
+                Duration.ofHours(1), Duration.ofDays(14));
+        serviceToken = jwt.generate("bench@example.com");
+        jwt.validateAndGetSubject(serviceToken); // warm the cache
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwt.generate("bench@example.com");
+    }
+
+    /** What validateAndGetSubject used to do: new parser + full HMAC verify per call. */
+    @Benchmark
+    public String parserPerCall() {
+        return Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    /** Reused parser, still verifying the signature every time. */
+    @Benchmark
+    public String reusedParser() {
+        return sharedParser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    /** Current JwtService: repeat tokens are served from the verified-token cache. */
+    @Benchmark
+    public String verifiedCacheHit() {
+        return jwt.validateAndGetSubject(serviceToken);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.bench;
+
+import com.example.demo.api.dto.PostSummary;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data-access latency behind GET and POST /api/posts/user/{userId}:
+ * "before" loads the User first (two round trips), "after" is keyed on the FK / uses a reference proxy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostByUserBenchmark {
+
+    private ConfigurableApplicationContext ctx;
+    private UserRepository users;
+    private PostRepository posts;
+    private Long userId;
+
+    @Setup
+    public void setup() {
+        ctx = BenchApp.start();
+        users = ctx.getBean(UserRepository.class);
+        posts = ctx.getBean(PostRepository.class);
+
+        User author = users.save(User.builder().email("bench@example.com").password("not-a-real-hash").build());
+        userId = author.getId();
+        List<Post> seed = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            seed.add(Post.builder().title("Post " + i).content("body " + i).user(author).build());
+        }
+        posts.saveAll(seed);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public List<PostSummary> getByUser_before() {
+        return users.findById(userId)
+                .map(u -> posts.findSummariesByUserId(u.getId()))
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public List<PostSummary> getByUser_after() {
+        return posts.findSummariesByUserId(userId);
+    }
+
+    @Benchmark
+    public Post create_before() {
+        User user = users.findById(userId).orElseThrow();
+        return posts.save(Post.builder().title("bench").content("body").user(user).build());
+    }
+
+    @Benchmark
+    public Post create_after() {
+        return posts.save(Post.builder().title("bench").content("body").user(users.getReferenceById(userId)).build());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.bench;
+
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a posts listing: the old findAll() of full entities (including @Lob content)
+ * vs. one keyset page of PostSummary projections. Rows and serialized bytes per call are
+ * reported as aux counters next to the timing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PostProjectionBenchmark {
+
+    @Param({"1000"})
+    public int posts;
+
+    @Param({"4096"})
+    public int contentChars;
+
+    private ConfigurableApplicationContext ctx;
+    private PostRepository postRepository;
+    private ObjectMapper mapper;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Volume {
+        public long rows;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() { rows = 0; bytes = 0; }
+    }
+
+    @Setup
+    public void setup() {
+        ctx = BenchApp.start();
+        postRepository = ctx.getBean(PostRepository.class);
+        mapper = ctx.getBean(ObjectMapper.class);
+
+        User author = ctx.getBean(UserRepository.class).save(User.builder()
+                .email("bench@example.com")
+                .password("not-a-real-hash")
+                .build());
+        String content = "lorem ipsum ".repeat(contentChars / 12 + 1).substring(0, contentChars);
+        List<Post> batch = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            batch.add(Post.builder().title("Post " + i).content(content).user(author).build());
+        }
+        postRepository.saveAll(batch);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    /** Before: every row, every column, full content serialized. */
+    @Benchmark
+    public byte[] findAllEntities(Volume volume) throws Exception {
+        List<Post> all = postRepository.findAll();
+        byte[] body = mapper.writeValueAsBytes(all);
+        volume.rows += all.size();
+        volume.bytes += body.length;
+        return body;
+    }
+
+    /** After: one page of projections with a 200-char excerpt. */
+    @Benchmark
+    public byte[] summaryPage(Volume volume) throws Exception {
+        var page = postRepository.findFirstSummaryPage(PageRequest.of(0, 50));
+        byte[] body = mapper.writeValueAsBytes(page);
+        volume.rows += page.size();
+        volume.bytes += body.length;
+        return body;
+    }
+}
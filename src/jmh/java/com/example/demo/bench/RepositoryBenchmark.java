@@ -0,0 +1,94 @@
+package com.example.demo.bench;
+
+import com.example.demo.api.dto.PostSummary;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/** Latency of the repository queries used by the controllers, against in-memory H2. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+    @Param({"200"})
+    public int users;
+
+    @Param({"10"})
+    public int postsPerUser;
+
+    private ConfigurableApplicationContext ctx;
+    private UserRepository userRepository;
+    private PostRepository postRepository;
+    private Long someUserId;
+    private List<String> someEmails;
+
+    @Setup
+    public void setup() {
+        ctx = BenchApp.start();
+        userRepository = ctx.getBean(UserRepository.class);
+        postRepository = ctx.getBean(PostRepository.class);
+
+        List<User> seeded = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            seeded.add(User.builder().email("user" + u + "@example.com").password("not-a-real-hash").build());
+        }
+        seeded = userRepository.saveAll(seeded);
+
+        List<Post> posts = new ArrayList<>();
+        for (User u : seeded) {
+            for (int p = 0; p < postsPerUser; p++) {
+                posts.add(Post.builder().title("Post " + p).content("lorem ipsum ".repeat(100)).user(u).build());
+            }
+        }
+        postRepository.saveAll(posts);
+
+        someUserId = seeded.get(users / 2).getId();
+        someEmails = seeded.stream().limit(50).map(User::getEmail).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Optional<User> userFindByEmail() {
+        return userRepository.findByEmail("user" + (users / 2) + "@example.com");
+    }
+
+    @Benchmark
+    public Optional<User> userFindById() {
+        return userRepository.findById(someUserId);
+    }
+
+    @Benchmark
+    public List<User> userFindPage() {
+        return userRepository.findPage(PageRequest.of(0, 50));
+    }
+
+    @Benchmark
+    public Set<String> userFindExistingEmails() {
+        return userRepository.findExistingEmails(someEmails);
+    }
+
+    @Benchmark
+    public List<PostSummary> postSummariesByUserId() {
+        return postRepository.findSummariesByUserId(someUserId);
+    }
+
+    @Benchmark
+    public List<PostSummary> postFirstSummaryPage() {
+        return postRepository.findFirstSummaryPage(PageRequest.of(0, 50));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.bench;
+
+import com.example.demo.auth.RevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request revocation check in JwtAuthFilter, with a full generation of revoked ids.
+ * It should not allocate; check gc.alloc.rate.norm with
+ * {@code ./gradlew jmh -Pjmh.includes=RevocationListBenchmark -Pjmh.profilers=gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RevocationListBenchmark {
+
+    private RevocationList revocations;
+    private String revokedId;
+    private String validId;
+
+    @Setup
+    public void setup() {
+        revocations = new RevocationList(new SimpleMeterRegistry(), Duration.ofDays(14), 100_000, 0.000001, "", Duration.ofMinutes(1));
+        long expiresAt = System.currentTimeMillis() + Duration.ofDays(1).toMillis();
+        for (int i = 0; i < 100_000; i++) {
+            revocations.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+        revokedId = UUID.randomUUID().toString();
+        revocations.revoke(revokedId, expiresAt);
+        validId = UUID.randomUUID().toString();
+    }
+
+    /** The common case: a token nobody revoked. */
+    @Benchmark
+    public boolean notRevoked() {
+        return revocations.isRevoked(validId);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocations.isRevoked(revokedId);
+    }
+}
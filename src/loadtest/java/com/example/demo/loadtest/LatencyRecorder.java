@@ -0,0 +1,45 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/** Per-worker latency samples (nanos); single-threaded writes, merged once the run is over. */
+final class LatencyRecorder {
+    private long[] samples = new long[1 << 14];
+    private int size;
+    private long errors;
+
+    void record(long nanos) {
+        if (size == samples.length) samples = Arrays.copyOf(samples, size * 2);
+        samples[size++] = nanos;
+    }
+
+    void error() { errors++; }
+
+    record Summary(long requests, long errors, double throughput, double p50Ms, double p99Ms) {
+        @Override
+        public String toString() {
+            return "%,10d req  %8.1f req/s  p50 %7.2f ms  p99 %7.2f ms  errors %d"
+                    .formatted(requests, throughput, p50Ms, p99Ms, errors);
+        }
+    }
+
+    static Summary summarize(List<LatencyRecorder> recorders, double elapsedSeconds) {
+        int total = recorders.stream().mapToInt(r -> r.size).sum();
+        long errors = recorders.stream().mapToLong(r -> r.errors).sum();
+        long[] all = new long[total];
+        int at = 0;
+        for (LatencyRecorder r : recorders) {
+            System.arraycopy(r.samples, 0, all, at, r.size);
+            at += r.size;
+        }
+        Arrays.sort(all);
+        return new Summary(total, errors, total / elapsedSeconds, percentileMs(all, 0.50), percentileMs(all, 0.99));
+    }
+
+    private static double percentileMs(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, idx)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The application booted on a random port with its own in-memory database, plus a small
+ * HTTP client for seeding and driving it. Close it to stop the app.
+ */
+final class LoadTestApp implements AutoCloseable {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final ConfigurableApplicationContext ctx;
+    private final String baseUrl;
+    private final HttpClient http;
+
+    private LoadTestApp(ConfigurableApplicationContext ctx, HttpClient http) {
+        this.ctx = ctx;
+        this.http = http;
+        int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    static LoadTestApp start(Map<String, String> overrides) {
+        Map<String, String> props = new LinkedHashMap<>();
+        props.put("server.port", "0");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("logging.level.root", "WARN");
+        props.put("spring.datasource.url", "jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        // every client logs in from 127.0.0.1 and a few tokens carry all the traffic
+        props.put("app.ratelimit.enabled", "false");
+        // tokens die with the app: nothing to persist, and no file shared with other runs
+        props.put("app.jwt.revocation.snapshot-file", "");
+        props.putAll(overrides);
+        // as command-line args: they must win over application.properties (defaultProperties would not)
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(DemoApplication.class)
+                .run(props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        return new LoadTestApp(ctx, http);
+    }
+
+    HttpClient http() { return http; }
+
+    URI uri(String path) { return URI.create(baseUrl + path); }
+
+    HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30));
+        if (token != null) b.header("Authorization", "Bearer " + token);
+        return b;
+    }
+
+    HttpResponse<String> postJson(String path, String token, String json) throws IOException, InterruptedException {
+        HttpRequest req = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return http.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> postNdjson(String path, String token, String ndjson) throws IOException, InterruptedException {
+        HttpRequest req = request(path, token)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson))
+                .build();
+        return http.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        return http.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Registers (ignoring "already exists") and logs in; returns the bearer token. */
+    String registerAndLogin(String email, String password) throws IOException, InterruptedException {
+        String credentials = "{\"email\":\"%s\",\"password\":\"%s\"}".formatted(email, password);
+        postJson("/auth/register", null, credentials);
+        HttpResponse<String> login = postJson("/auth/login", null, credentials);
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("login failed for " + email + ": " + login.statusCode());
+        }
+        return JSON.readTree(login.body()).get("token").asText();
+    }
+
+    long currentUserId(String token) throws IOException, InterruptedException {
+        return JSON.readTree(get("/api/me", token).body()).get("id").asLong();
+    }
+
+    @Override
+    public void close() {
+        ctx.close();
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Seeds N users and M posts, drives a weighted register/login/me/posts mix with a closed loop of
+ * clients, scrapes /actuator/prometheus for the server-side view, and checks the results against
+ * the budgets in {@code slo.properties}. Exits non-zero (failing the Gradle task) on any miss.
+ * <p>
+ * Tunables (system properties): loadtest.users (200), loadtest.posts (2000), loadtest.tokens (20),
+ * loadtest.concurrency (50), loadtest.seconds (30), loadtest.warmupSeconds (10),
+ * loadtest.mix ("register:2,login:8,me:45,posts:45"), loadtest.report (build/reports/loadtest/slo.txt).
+ */
+public final class SloLoadTest {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String PASSWORD = "secret123";
+
+    // http_server_requests_seconds{...,method="GET",...,quantile="0.99",...,uri="/api/me",} 0.0123
+    private static final Pattern SERVER_P99 = Pattern.compile(
+            "^http_server_requests_seconds\\{(?=.*quantile=\"0\\.99\")(?=.*method=\"(\\w+)\")(?=.*uri=\"([^\"]+)\").*} (\\S+)$");
+
+    enum Op { REGISTER, LOGIN, ME, POSTS }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 200);
+        int posts = Integer.getInteger("loadtest.posts", 2000);
+        int tokens = Integer.getInteger("loadtest.tokens", 20);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 50);
+        Duration measure = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+        Map<Op, Integer> mix = parseMix(System.getProperty("loadtest.mix", "register:2,login:8,me:45,posts:45"));
+        Path report = Path.of(System.getProperty("loadtest.report", "build/reports/loadtest/slo.txt"));
+        Properties slo = loadBudgets();
+
+        StringBuilder out = new StringBuilder();
+        List<String> violations = new ArrayList<>();
+
+        try (LoadTestApp app = LoadTestApp.start(Map.of())) {
+            String admin = app.registerAndLogin("slo-admin@example.com", PASSWORD);
+            seedUsers(app, admin, users);
+            seedPosts(app, admin, posts);
+            List<String> pool = new ArrayList<>(tokens);
+            for (int i = 0; i < Math.min(tokens, users); i++) {
+                pool.add(login(app, seedEmail(i)));
+            }
+
+            Workload workload = new Workload(app, mix, pool, users);
+            workload.run(concurrency, warmup);
+            Map<Op, LatencyRecorder.Summary> results = workload.run(concurrency, measure);
+            Map<String, Double> serverP99 = scrapeServerP99(app);
+
+            long requests = 0, errors = 0;
+            double throughput = 0;
+            out.append("users=%d posts=%d concurrency=%d, %ds measured%n%n"
+                    .formatted(users, posts, concurrency, measure.toSeconds()));
+            out.append("client-observed\n");
+            for (var e : results.entrySet()) {
+                LatencyRecorder.Summary s = e.getValue();
+                requests += s.requests() + s.errors();
+                errors += s.errors();
+                throughput += s.throughput();
+                out.append("  %-9s %s%n".formatted(e.getKey().name().toLowerCase(Locale.ROOT), s));
+
+                double budget = budget(slo, "p99Ms." + e.getKey().name().toLowerCase(Locale.ROOT));
+                if (s.requests() > 0 && s.p99Ms() > budget) {
+                    violations.add("p99 of %s is %.2f ms (budget %.0f ms)"
+                            .formatted(e.getKey().name().toLowerCase(Locale.ROOT), s.p99Ms(), budget));
+                }
+            }
+            out.append("\nserver-side p99 (/actuator/prometheus)\n");
+            serverP99.forEach((k, v) -> out.append("  %-28s %8.2f ms%n".formatted(k, v)));
+
+            double minThroughput = budget(slo, "minThroughput");
+            if (throughput < minThroughput) {
+                violations.add("throughput is %.1f req/s (budget >= %.0f)".formatted(throughput, minThroughput));
+            }
+            double errorRate = requests == 0 ? 0 : (double) errors / requests;
+            double maxErrorRate = budget(slo, "maxErrorRate");
+            if (errorRate > maxErrorRate) {
+                violations.add("error rate is %.4f (budget <= %.4f)".formatted(errorRate, maxErrorRate));
+            }
+            out.append("%ntotal %.1f req/s, error rate %.4f%n".formatted(throughput, errorRate));
+        }
+
+        out.append(violations.isEmpty() ? "\nSLO: PASS\n" : "\nSLO: FAIL\n");
+        violations.forEach(v -> out.append("  - ").append(v).append('\n'));
+        System.out.print(out);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, out);
+
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    /** Closed loop: each client picks the next operation from the weighted mix as soon as the last one returns. */
+    private record Workload(LoadTestApp app, Map<Op, Integer> mix, List<String> tokens, int seededUsers) {
+        private static final AtomicLong REGISTERED = new AtomicLong();
+
+        Map<Op, LatencyRecorder.Summary> run(int clients, Duration duration) throws Exception {
+            int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+            long start = System.nanoTime();
+            long deadline = start + duration.toNanos();
+            List<Future<Map<Op, LatencyRecorder>>> workers = new ArrayList<>(clients);
+            try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    workers.add(pool.submit(() -> {
+                        Map<Op, LatencyRecorder> recs = new EnumMap<>(Op.class);
+                        for (Op op : mix.keySet()) recs.put(op, new LatencyRecorder());
+                        while (System.nanoTime() < deadline) {
+                            Op op = pick(totalWeight);
+                            LatencyRecorder rec = recs.get(op);
+                            long t0 = System.nanoTime();
+                            try {
+                                HttpResponse<Void> res = app.http().send(request(op), HttpResponse.BodyHandlers.discarding());
+                                if (res.statusCode() >= 400) rec.error();
+                                else rec.record(System.nanoTime() - t0);
+                            } catch (IOException e) {
+                                rec.error();
+                            }
+                        }
+                        return recs;
+                    }));
+                }
+
+                Map<Op, List<LatencyRecorder>> byOp = new EnumMap<>(Op.class);
+                for (Future<Map<Op, LatencyRecorder>> w : workers) {
+                    w.get().forEach((op, rec) -> byOp.computeIfAbsent(op, k -> new ArrayList<>()).add(rec));
+                }
+                double elapsed = (System.nanoTime() - start) / 1e9;
+                Map<Op, LatencyRecorder.Summary> summaries = new EnumMap<>(Op.class);
+                byOp.forEach((op, recs) -> summaries.put(op, LatencyRecorder.summarize(recs, elapsed)));
+                return summaries;
+            }
+        }
+
+        private Op pick(int totalWeight) {
+            int r = ThreadLocalRandom.current().nextInt(totalWeight);
+            for (var e : mix.entrySet()) {
+                r -= e.getValue();
+                if (r < 0) return e.getKey();
+            }
+            throw new IllegalStateException("empty mix");
+        }
+
+        private HttpRequest request(Op op) {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            return switch (op) {
+                case REGISTER -> json("/auth/register", "reg-" + REGISTERED.incrementAndGet() + "@example.com");
+                case LOGIN -> json("/auth/login", seedEmail(rnd.nextInt(seededUsers)));
+                case ME -> app.request("/api/me", tokens.get(rnd.nextInt(tokens.size()))).GET().build();
+                case POSTS -> app.request("/api/posts", tokens.get(rnd.nextInt(tokens.size()))).GET().build();
+            };
+        }
+
+        private HttpRequest json(String path, String email) {
+            return app.request(path, null)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"%s\",\"password\":\"%s\"}".formatted(email, PASSWORD)))
+                    .build();
+        }
+    }
+
+    private static String seedEmail(int i) {
+        return "seed-" + i + "@example.com";
+    }
+
+    private static String login(LoadTestApp app, String email) throws IOException, InterruptedException {
+        HttpResponse<String> res = app.postJson("/auth/login", null,
+                "{\"email\":\"%s\",\"password\":\"%s\"}".formatted(email, PASSWORD));
+        if (res.statusCode() != 200) throw new IllegalStateException("login failed for " + email + ": " + res.statusCode());
+        return JSON.readTree(res.body()).get("token").asText();
+    }
+
+    private static void seedUsers(LoadTestApp app, String token, int count) throws IOException, InterruptedException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ndjson.append("{\"email\":\"").append(seedEmail(i))
+                    .append("\",\"password\":\"").append(PASSWORD).append("\"}\n");
+        }
+        HttpResponse<String> res = app.postNdjson("/api/users/import", token, ndjson.toString());
+        if (res.statusCode() != 200) throw new IllegalStateException("user import failed: " + res.statusCode());
+    }
+
+    /** Spreads posts round-robin over every user that exists after seeding. */
+    private static void seedPosts(LoadTestApp app, String token, int count) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            JsonNode users = JSON.readTree(app.get("/api/users?size=500&page=" + page, token).body());
+            if (users.isEmpty()) break;
+            users.forEach(u -> ids.add(u.get("id").asLong()));
+        }
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ndjson.append("{\"userId\":").append(ids.get(i % ids.size()))
+                    .append(",\"title\":\"Seed ").append(i)
+                    .append("\",\"content\":\"").append("lorem ipsum ".repeat(40)).append("\"}\n");
+        }
+        HttpResponse<String> res = app.postNdjson("/api/posts/bulk", token, ndjson.toString());
+        if (res.statusCode() != 200) throw new IllegalStateException("post seeding failed: " + res.statusCode());
+    }
+
+    /** "METHOD uri" -> p99 in ms, from the percentiles published for http.server.requests. */
+    private static Map<String, Double> scrapeServerP99(LoadTestApp app) throws IOException, InterruptedException {
+        Map<String, Double> p99 = new TreeMap<>();
+        for (String line : app.get("/actuator/prometheus", null).body().split("\n")) {
+            Matcher m = SERVER_P99.matcher(line);
+            if (m.matches()) {
+                p99.merge(m.group(1) + " " + m.group(2), Double.parseDouble(m.group(3)) * 1000, Math::max);
+            }
+        }
+        return p99;
+    }
+
+    private static Map<Op, Integer> parseMix(String spec) {
+        Map<Op, Integer> mix = new EnumMap<>(Op.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) mix.put(Op.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("loadtest.mix has no positive weights: " + spec);
+        return mix;
+    }
+
+    private static Properties loadBudgets() throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = SloLoadTest.class.getResourceAsStream("/slo.properties")) {
+            if (in != null) p.load(in);
+        }
+        return p;
+    }
+
+    private static double budget(Properties slo, String key) {
+        String value = System.getProperty("loadtest.slo." + key, slo.getProperty(key));
+        if (value == null) throw new IllegalStateException("no SLO budget for " + key);
+        return Double.parseDouble(value.trim());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Boots the app once with platform threads and once with {@code spring.threads.virtual.enabled=true},
+ * drives a closed loop of N concurrent clients against GET /api/posts and GET /api/me, and prints
+ * throughput and p50/p99 per endpoint and mode.
+ * <p>
+ * Tunables (system properties): loadtest.concurrency (200), loadtest.seconds (20),
+ * loadtest.warmupSeconds (5), loadtest.posts (500).
+ */
+public final class ThreadModeComparison {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+        Duration measure = Duration.ofSeconds(Long.getLong("loadtest.seconds", 20));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 5));
+        int posts = Integer.getInteger("loadtest.posts", 500);
+
+        Map<String, LatencyRecorder.Summary> results = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual " : "platform";
+            try (LoadTestApp app = LoadTestApp.start(Map.of("spring.threads.virtual.enabled", String.valueOf(virtual)))) {
+                String token = app.registerAndLogin("load@example.com", "secret123");
+                long userId = app.currentUserId(token);
+                seedPosts(app, token, userId, posts);
+
+                for (String path : List.of("/api/posts", "/api/me")) {
+                    HttpRequest request = app.request(path, token).GET().build();
+                    run(app, request, concurrency, warmup);
+                    results.put(mode + "  " + path, run(app, request, concurrency, measure));
+                }
+            }
+        }
+
+        System.out.printf("%nconcurrency=%d, %ds per endpoint%n", concurrency, measure.toSeconds());
+        results.forEach((name, summary) -> System.out.printf("%-22s %s%n", name, summary));
+    }
+
+    private static void seedPosts(LoadTestApp app, String token, long userId, int count) throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ndjson.append("{\"userId\":").append(userId)
+                    .append(",\"title\":\"Load ").append(i)
+                    .append("\",\"content\":\"").append("lorem ipsum ".repeat(40)).append("\"}\n");
+        }
+        app.postNdjson("/api/posts/bulk", token, ndjson.toString());
+    }
+
+    /** Closed loop: each client issues the next request as soon as the previous one completes. */
+    static LatencyRecorder.Summary run(LoadTestApp app, HttpRequest request, int clients, Duration duration)
+            throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Future<LatencyRecorder>> workers = new ArrayList<>(clients);
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                workers.add(pool.submit(() -> {
+                    LatencyRecorder rec = new LatencyRecorder();
+                    while (System.nanoTime() < deadline) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> res = app.http().send(request, HttpResponse.BodyHandlers.discarding());
+                            if (res.statusCode() >= 400) rec.error();
+                            else rec.record(System.nanoTime() - t0);
+                        } catch (java.io.IOException e) {
+                            rec.error();
+                        }
+                    }
+                    return rec;
+                }));
+            }
+            List<LatencyRecorder> recorders = new ArrayList<>(clients);
+            for (Future<LatencyRecorder> w : workers) recorders.add(w.get());
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            return LatencyRecorder.summarize(recorders, elapsed);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.api.dto;
+
+/**
+ * Outcome of one bulk chunk. A chunk commits or rolls back as a unit; {@code skipped} counts
+ * items rejected before the insert (invalid, duplicate) or lost with a failed chunk.
+ */
+public record BulkChunkResult(int index, int received, int inserted, int skipped, String error) {
+}
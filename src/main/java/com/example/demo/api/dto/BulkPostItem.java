@@ -0,0 +1,5 @@
+package com.example.demo.api.dto;
+
+/** One element of a POST /api/posts/bulk body (JSON array element or NDJSON line). */
+public record BulkPostItem(Long userId, String title, String content) {
+}
@@ -0,0 +1,17 @@
+package com.example.demo.api.dto;
+
+import java.util.List;
+
+/** Totals plus per-chunk results of a bulk import. */
+public record BulkResult(long received, long inserted, long skipped, List<BulkChunkResult> chunks) {
+
+    public static BulkResult of(List<BulkChunkResult> chunks) {
+        long received = 0, inserted = 0, skipped = 0;
+        for (BulkChunkResult c : chunks) {
+            received += c.received();
+            inserted += c.inserted();
+            skipped += c.skipped();
+        }
+        return new BulkResult(received, inserted, skipped, chunks);
+    }
+}
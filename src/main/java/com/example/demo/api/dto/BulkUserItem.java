@@ -0,0 +1,5 @@
+package com.example.demo.api.dto;
+
+/** One element of a POST /api/users/import body (JSON array element or NDJSON line); password is plain text. */
+public record BulkUserItem(String email, String password, String firstName, String lastName) {
+}
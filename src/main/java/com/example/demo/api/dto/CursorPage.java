@@ -0,0 +1,7 @@
+package com.example.demo.api.dto;
+
+import java.util.List;
+
+/** One page of a keyset-paginated listing; {@code next} is null on the last page. */
+public record CursorPage<T>(List<T> items, String next) {
+}
@@ -0,0 +1,18 @@
+package com.example.demo.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/** Error body with per-field details (400s from validation); the other errors are rendered by ErrorBodies. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ErrorResponse(
+        int status,
+        String error,
+        String message,
+        String path,
+        String timestamp,
+        List<FieldError> errors
+) {
+    public record FieldError(String field, String message) { }
+}
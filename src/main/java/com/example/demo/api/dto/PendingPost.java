@@ -0,0 +1,14 @@
+package com.example.demo.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Status of an asynchronously accepted post (POST /api/posts/user/{id} with Prefer: respond-async);
+// ticket is the opaque handle to poll with, error a fixed reason
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PendingPost(String ticket, Status status, Long postId, String error) {
+    public enum Status { PENDING, DONE, FAILED }
+
+    public static PendingPost pending(String ticket) {
+        return new PendingPost(ticket, Status.PENDING, null, null);
+    }
+}
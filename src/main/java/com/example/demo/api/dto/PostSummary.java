@@ -0,0 +1,12 @@
+package com.example.demo.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of a post: everything but the @Lob body, which is cut down to a short excerpt in SQL.
+ * Built by constructor expressions in PostRepository, so no Post entity is hydrated.
+ */
+public record PostSummary(Long id, Long userId, String title, LocalDateTime createdAt, String excerpt) {
+    /** Characters of content kept in {@link #excerpt()} (used by the PostRepository queries). */
+    public static final int EXCERPT_LENGTH = 200;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.api.dto;
+
+import com.example.demo.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/** User listing entry; {@code posts} is only present when requested with ?include=posts. */
+public record UserResponse(
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<PostSummary> posts
+) {
+    public static UserResponse of(User u, List<PostSummary> posts) {
+        return new UserResponse(u.getId(), u.getEmail(), u.getFirstName(), u.getLastName(), posts);
+    }
+}
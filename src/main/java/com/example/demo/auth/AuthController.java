@@ -2,27 +2,42 @@
 package com.example.demo.auth;
 
 import com.example.demo.auth.dto.RegisterRequest;
+import com.example.demo.controller.JsonResponseCache;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Objects;
+
 import static com.example.demo.auth.AuthDtos.*;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
     private final UserRepository users;
-    private final PasswordEncoder encoder;
+    private final PasswordHashingService hashing;   // BCrypt off the request thread, bounded
     private final JwtService jwt;
+    private final JsonResponseCache responses;
+    private final PrincipalCache principals;
+    private final DbUserDetailsService uds;
+    private final RevocationList revocations;
 
-    public AuthController(UserRepository users, PasswordEncoder encoder, JwtService jwt) {
+    public AuthController(UserRepository users, PasswordHashingService hashing, JwtService jwt,
+                          JsonResponseCache responses, PrincipalCache principals, DbUserDetailsService uds,
+                          RevocationList revocations) {
         this.users = users;
-        this.encoder = encoder;
+        this.hashing = hashing;
         this.jwt = jwt;
+        this.responses = responses;
+        this.principals = principals;
+        this.uds = uds;
+        this.revocations = revocations;
     }
 
     @PostMapping("/register")
@@ -34,17 +49,71 @@ public class AuthController {
 
         User u = new User();
         u.setEmail(req.getEmail());
-        u.setPassword(encoder.encode(req.getPassword()));
+        u.setPassword(hashing.encode(req.getPassword()));
 
         users.save(u);
+        responses.evict(JsonResponseCache.USERS);
     }
 
     @PostMapping("/login")
     public AuthResponse login(@RequestBody LoginRequest req) {
         var u = users.findByEmail(req.email)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Bad credentials"));
-        if (!encoder.matches(req.password, u.getPassword()))
+        if (!hashing.matches(req.password, u.getPassword()))
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Bad credentials");
-        return new AuthResponse(jwt.generate(u.getEmail()));
+        AuthenticatedUser user = AuthenticatedUser.of(u);
+        return new AuthResponse(jwt.generate(user), jwt.generateRefresh(user));
+    }
+
+    /**
+     * Trades a refresh token for a new access + refresh pair, without a password check (and usually
+     * without a query: the user comes from the principal cache). Each refresh token works once.
+     */
+    @PostMapping("/refresh")
+    public AuthResponse refresh(@RequestBody RefreshRequest req) {
+        JwtService.VerifiedToken token = verify(req.refreshToken);
+        if (token == null || !token.refresh() || revocations.isRevoked(token.jti()))
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+
+        AuthenticatedUser current;
+        try {
+            current = principals.get(token.user().email(), uds::loadAuthenticatedUser);
+        } catch (UsernameNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        // the user was updated (password, email, ...) or deleted and registered again since
+        if (!token.user().hasProfile() || !token.user().isCurrent(current))
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        // false: another request refreshed with this token first
+        if (!revocations.revoke(token.jti(), token.expiresAtMs()))
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+
+        return new AuthResponse(jwt.generate(current), jwt.generateRefresh(current));
+    }
+
+    /** Revokes the Bearer access token and, if given, the refresh token issued with it. */
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                       @RequestBody(required = false) RefreshRequest req) {
+        JwtService.VerifiedToken access = authorization != null && authorization.startsWith("Bearer ")
+                ? verify(authorization.substring(7)) : null;
+        if (access == null || access.refresh())
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Bearer access token required");
+        revocations.revoke(access.jti(), access.expiresAtMs());
+
+        JwtService.VerifiedToken refresh = req == null ? null : verify(req.refreshToken);
+        if (refresh != null && refresh.refresh() && Objects.equals(refresh.user().email(), access.user().email())) {
+            revocations.revoke(refresh.jti(), refresh.expiresAtMs());
+        }
+    }
+
+    private JwtService.VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            return jwt.validate(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 }
@@ -3,5 +3,9 @@ package com.example.demo.auth;
 
 public class AuthDtos {
     public static class LoginRequest { public String email; public String password; }
-    public static class AuthResponse { public String token; public AuthResponse(String t){this.token=t;} }
+    public static class RefreshRequest { public String refreshToken; }
+    public static class AuthResponse {
+        public String token; public String refreshToken;
+        public AuthResponse(String t, String r){this.token=t; this.refreshToken=r;}
+    }
 }
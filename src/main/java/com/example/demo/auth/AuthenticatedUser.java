@@ -0,0 +1,37 @@
+// src/main/java/com/example/demo/auth/AuthenticatedUser.java
+package com.example.demo.auth;
+
+import com.example.demo.entity.User;
+
+import java.security.Principal;
+
+/**
+ * The caller as described by the token's profile claims, set as the principal by {@link JwtAuthFilter}.
+ * {@code profileVersion} is {@link User#getVersion()} when the token was issued. Tokens issued with a
+ * subject only have no id/version; for those the filter uses the user loaded from the database.
+ */
+public record AuthenticatedUser(Long id, String email, String firstName, String lastName, Long profileVersion)
+        implements Principal {
+
+    public static AuthenticatedUser of(User u) {
+        return new AuthenticatedUser(u.getId(), u.getEmail(), u.getFirstName(), u.getLastName(), u.getVersion());
+    }
+
+    public static AuthenticatedUser subjectOnly(String email) {
+        return new AuthenticatedUser(null, email, null, null, null);
+    }
+
+    boolean hasProfile() {
+        return id != null && profileVersion != null;
+    }
+
+    /** Same user, same profile version: nothing in the token is stale. */
+    boolean isCurrent(AuthenticatedUser current) {
+        return id.equals(current.id()) && profileVersion.equals(current.profileVersion());
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
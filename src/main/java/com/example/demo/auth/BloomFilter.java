@@ -0,0 +1,110 @@
+package com.example.demo.auth;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free Bloom filter over strings, sized for {@code expected} insertions at false-positive
+ * rate {@code fpp}. Both operations hash the string in place (no allocation) and touch
+ * {@code hashes} bits; {@link #put} sets them with an atomic OR, so concurrent writers never lose
+ * a bit and readers never block.
+ */
+final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    BloomFilter(long expected, double fpp) {
+        if (expected <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("Need expected > 0 and 0 < fpp < 1, got " + expected + " / " + fpp);
+        }
+        long optimalBits = (long) Math.ceil(-expected * Math.log(fpp) / (LN2 * LN2));
+        int length = Math.toIntExact((optimalBits + 63) / 64);
+        this.words = new AtomicLongArray(length);
+        this.bits = length * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expected * LN2));
+    }
+
+    private BloomFilter(int hashes, long[] words) {
+        this.words = new AtomicLongArray(words);
+        this.bits = words.length * 64L;
+        this.hashes = hashes;
+    }
+
+    /** Adds the id; returns false if all of its bits were already set (it was, probably, present). */
+    boolean put(String id) {
+        long h1 = hash(id, 0x9E3779B97F4A7C15L);
+        long h2 = hash(id, 0xC2B2AE3D27D4EB4FL) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                changed |= (words.getAndAccumulate(word, mask, BloomFilter::or) & mask) == 0;
+            }
+        }
+        return changed;
+    }
+
+    boolean mightContain(String id) {
+        long h1 = hash(id, 0x9E3779B97F4A7C15L);
+        long h2 = hash(id, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(hashes);
+        out.writeInt(words.length());
+        for (int i = 0; i < words.length(); i++) {
+            out.writeLong(words.get(i));
+        }
+    }
+
+    static BloomFilter readFrom(DataInput in) throws IOException {
+        int hashes = in.readInt();
+        int length = in.readInt();
+        if (hashes <= 0 || length <= 0) {
+            throw new IOException("Corrupt Bloom filter header: " + hashes + " hashes, " + length + " words");
+        }
+        long[] words = new long[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = in.readLong();
+        }
+        return new BloomFilter(hashes, words);
+    }
+
+    long bitSize() {
+        return bits;
+    }
+
+    int hashCount() {
+        return hashes;
+    }
+
+    private static long or(long a, long b) {
+        return a | b;
+    }
+
+    // FNV-1a over the chars, finished with murmur3's fmix64 so every output bit depends on every input
+    private static long hash(String s, long seed) {
+        long h = seed;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -20,4 +20,11 @@ public class DbUserDetailsService implements UserDetailsService {
                 .authorities("ROLE_USER")
                 .build();
     }
+
+    /** Current state of the user behind a token subject; what JwtAuthFilter checks token claims against. */
+    public AuthenticatedUser loadAuthenticatedUser(String email) throws UsernameNotFoundException {
+        return repo.findByEmail(email)
+                .map(AuthenticatedUser::of)
+                .orElseThrow(() -> new UsernameNotFoundException("Not found"));
+    }
 }
@@ -0,0 +1,39 @@
+// src/main/java/com/example/demo/auth/InstrumentedPasswordEncoder.java
+package com.example.demo.auth;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Times every hash and verification, wherever it runs (login/register pool, user import pool).
+ * BCrypt takes milliseconds, so these timers are not sampled.
+ * <p>
+ * Metrics: {@code auth.password.hash}, {@code auth.password.verify} (timers).
+ */
+public class InstrumentedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+
+    public InstrumentedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.hashTimer = Timer.builder("auth.password.hash").register(registry);
+        this.verifyTimer = Timer.builder("auth.password.verify").register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return Boolean.TRUE.equals(verifyTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
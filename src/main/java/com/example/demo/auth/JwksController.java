@@ -0,0 +1,33 @@
+// src/main/java/com/example/demo/auth/JwksController.java
+package com.example.demo.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Public keys of the {@link JwtKeyRing} as a JWK set, for services that verify our tokens.
+ * Verifiers should refetch when they meet an unknown {@code kid}, since a new key may sign
+ * before their cached copy expires.
+ */
+@RestController
+public class JwksController {
+    private final JwtKeyRing keys;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtKeyRing keys,
+                          @Value("${app.jwt.jwks.max-age:PT5M}") Duration maxAge) {
+        this.keys = keys;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok().cacheControl(cacheControl).body(keys.jwks());
+    }
+}
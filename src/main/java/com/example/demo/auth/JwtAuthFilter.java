@@ -1,23 +1,75 @@
 // src/main/java/com/example/demo/auth/JwtAuthFilter.java
 package com.example.demo.auth;
 
+import com.example.demo.config.MetricsSampler;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Authenticates Bearer tokens. The principal is an {@link AuthenticatedUser} built from the token's
+ * profile claims, so controllers can answer identity questions without a query. The claims are
+ * trusted only while the token's profile version matches the user's current one (kept in
+ * {@link PrincipalCache}, evicted on update/delete): updating a user makes older tokens stale.
+ * Refresh tokens and revoked tokens ({@link RevocationList}, a lock-free in-memory lookup) never
+ * authenticate.
+ * <p>
+ * A token that doesn't authenticate is not an error here (the request just proceeds
+ * anonymously), but the reason is counted.
+ * <p>
+ * Metrics: {@code auth.filter} (sampled timer, token check + principal lookup),
+ * {@code auth.principal.load} (timer, database lookup on a principal-cache miss) and
+ * {@code auth.jwt.failures{reason}} (counter: expired, signature, malformed, unsupported,
+ * refresh_token, revoked, unknown_user, stale, other).
+ */
 @Component
 public class JwtAuthFilter extends org.springframework.web.filter.OncePerRequestFilter {
+    private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
     private final JwtService jwt;
     private final DbUserDetailsService uds;
+    private final PrincipalCache principals;
+    private final RevocationList revocations;
+
+    private final MetricsSampler sampler;
+    private final Timer filterTimer;
+    private final Timer loadTimer;
+    private final Map<String, Counter> failures;
 
-    public JwtAuthFilter(JwtService jwt, DbUserDetailsService uds) {
-        this.jwt = jwt; this.uds = uds;
+    public JwtAuthFilter(JwtService jwt, DbUserDetailsService uds, PrincipalCache principals,
+                         RevocationList revocations, MeterRegistry registry,
+                         @Value("${app.metrics.sample-rate:0.1}") double sampleRate) {
+        this.jwt = jwt; this.uds = uds; this.principals = principals; this.revocations = revocations;
+        this.sampler = new MetricsSampler(sampleRate);
+        this.filterTimer = Timer.builder("auth.filter").register(registry);
+        this.loadTimer = Timer.builder("auth.principal.load").register(registry);
+        this.failures = Map.of(
+                "expired", failureCounter(registry, "expired"),
+                "signature", failureCounter(registry, "signature"),
+                "malformed", failureCounter(registry, "malformed"),
+                "unsupported", failureCounter(registry, "unsupported"),
+                "refresh_token", failureCounter(registry, "refresh_token"),
+                "revoked", failureCounter(registry, "revoked"),
+                "unknown_user", failureCounter(registry, "unknown_user"),
+                "stale", failureCounter(registry, "stale"),
+                "other", failureCounter(registry, "other"));
     }
 
     @Override
@@ -25,17 +77,63 @@ public class JwtAuthFilter extends org.springframework.web.filter.OncePerRequest
             throws ServletException, IOException {
         String auth = req.getHeader("Authorization");
         if (auth != null && auth.startsWith("Bearer ")) {
-            String token = auth.substring(7);
-            try {
-                String email = jwt.validateAndGetSubject(token);
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails ud = uds.loadUserByUsername(email);
-                    var authToken = new UsernamePasswordAuthenticationToken(ud, null, ud.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            } catch (Exception ignored) { /* invalid token -> no auth */ }
+            if (sampler.sample()) {
+                filterTimer.record(() -> authenticate(req, auth.substring(7)));
+            } else {
+                authenticate(req, auth.substring(7));
+            }
         }
         chain.doFilter(req, res);
     }
+
+    private void authenticate(HttpServletRequest req, String token) {
+        try {
+            JwtService.VerifiedToken verified = jwt.validate(token);
+            if (verified.refresh()) {
+                failures.get("refresh_token").increment();
+                return;
+            }
+            if (revocations.isRevoked(verified.jti())) {
+                failures.get("revoked").increment();
+                return;
+            }
+            AuthenticatedUser claimed = verified.user();
+            if (claimed.email() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                AuthenticatedUser current = principals.get(claimed.email(), this::load);
+                AuthenticatedUser principal;
+                if (!claimed.hasProfile()) {
+                    principal = current; // subject-only token
+                } else if (claimed.isCurrent(current)) {
+                    principal = claimed;
+                } else {
+                    failures.get("stale").increment();
+                    return;
+                }
+                var authToken = new UsernamePasswordAuthenticationToken(principal, null, USER_AUTHORITIES);
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        } catch (Exception e) { // invalid token -> no auth
+            failures.get(reason(e)).increment();
+        }
+    }
+
+    private AuthenticatedUser load(String email) {
+        return loadTimer.record(() -> uds.loadAuthenticatedUser(email));
+    }
+
+    private static String reason(Exception e) {
+        return switch (e) {
+            case ExpiredJwtException x -> "expired";
+            case io.jsonwebtoken.security.SecurityException x -> "signature";
+            case MalformedJwtException x -> "malformed";
+            case UnsupportedJwtException x -> "unsupported";
+            case UsernameNotFoundException x -> "unknown_user";
+            default -> "other";
+        };
+    }
+
+    private static Counter failureCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("auth.jwt.failures").tag("reason", reason).register(registry);
+    }
 }
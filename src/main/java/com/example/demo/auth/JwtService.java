@@ -1,31 +1,246 @@
 // src/main/java/com/example/demo/auth/JwtService.java
 package com.example.demo.auth;
 
+import com.example.demo.config.MetricsSampler;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues tokens signed with the {@link JwtKeyRing}'s current key ({@code kid} header) and verifies
+ * them against any key the ring still publishes. Besides the subject (email) a token carries the user's id,
+ * first/last name and profile version ({@code uid}, {@code fn}, {@code ln}, {@code pv}).
+ * <p>
+ * Every token has a random id ({@code jti}) so it can be revoked (see {@link RevocationList}).
+ * Access tokens live {@code app.jwt.access-ttl}; refresh tokens ({@code use=refresh}, subject,
+ * id and profile version) live {@code app.jwt.refresh-ttl} and are only good for POST /auth/refresh.
+ * Like access tokens, they go stale when the user is updated.
+ * <p>
+ * Metrics: {@code auth.jwt.generate} and {@code auth.jwt.verify} (timers; verify covers the
+ * parse + signature check on a cache miss and is sampled, see {@link MetricsSampler}), plus
+ * {@code cache.*{cache="jwt.verified"}}.
+ */
 @Service
 public class JwtService {
-    // For demo only—move to config/env and keep secret safe!
-    private final Key key = Keys.hmacShaKeyFor("change-this-to-32+char-secret-key-change-me".getBytes());
-    private final long ttlMs = 1000L * 60 * 60; // 1 hour
+    private final JwtKeyRing keys;
+    private final long accessTtlMs;
+    private final long refreshTtlMs;
 
+    // profile claims (short names: they ride along on every request)
+    static final String USER_ID = "uid";
+    static final String FIRST_NAME = "fn";
+    static final String LAST_NAME = "ln";
+    static final String PROFILE_VERSION = "pv";
+    static final String TOKEN_USE = "use";
+    static final String REFRESH = "refresh";
+
+    private static final SecureRandom IDS = new SecureRandom();
+    private static final Base64.Encoder ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    // JwtParser is immutable and thread-safe: build it once; keys are looked up per token by kid
+    private final JwtParser parser;
+
+    // sha-256(token) -> already verified token; entries never outlive the token's exp
+    private final Cache<String, VerifiedToken> verified;
+
+    private final MetricsSampler sampler;
+    private final Timer generateTimer;
+    private final Timer verifyTimer;
+
+    public JwtService(JwtKeyRing keys,
+                      MeterRegistry registry,
+                      @Value("${app.jwt.verified-cache.max-size:50000}") long maxSize,
+                      @Value("${app.metrics.sample-rate:0.1}") double sampleRate,
+                      @Value("${app.jwt.access-ttl:PT1H}") Duration accessTtl,
+                      @Value("${app.jwt.refresh-ttl:P14D}") Duration refreshTtl) {
+        this.keys = keys;
+        this.accessTtlMs = accessTtl.toMillis();
+        this.refreshTtlMs = refreshTtl.toMillis();
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new KidResolver(keys)).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, verified, "jwt.verified");
+
+        this.sampler = new MetricsSampler(sampleRate);
+        this.generateTimer = Timer.builder("auth.jwt.generate").register(registry);
+        this.verifyTimer = Timer.builder("auth.jwt.verify").register(registry);
+    }
+
+    /** Subject plus the profile claims, so the caller's identity can be served from the token. */
+    public String generate(AuthenticatedUser user) {
+        return generateTimer.record(() -> {
+            JwtKeyRing.SigningKey signer = keys.signer();
+            Date now = new Date();
+            // null claims are left out
+            return Jwts.builder()
+                    .setHeaderParam(JwsHeader.KEY_ID, signer.kid())
+                    .setId(newId())
+                    .setSubject(user.email())
+                    .claim(USER_ID, user.id())
+                    .claim(FIRST_NAME, user.firstName())
+                    .claim(LAST_NAME, user.lastName())
+                    .claim(PROFILE_VERSION, user.profileVersion())
+                    .setIssuedAt(now)
+                    .setExpiration(new Date(now.getTime() + accessTtlMs))
+                    .signWith(signer.key(), signer.algorithm())
+                    .compact();
+        });
+    }
+
+    /** A token with the subject only; JwtAuthFilter then takes the identity from the database. */
     public String generate(String subject) {
-        Date now = new Date();
-        return Jwts.builder()
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(new Date(now.getTime() + ttlMs))
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+        return generate(AuthenticatedUser.subjectOnly(subject));
+    }
+
+    /**
+     * A refresh token for the user: subject, id and profile version, no names. The profile version
+     * makes it stale after an update (password, email), like the access tokens.
+     */
+    public String generateRefresh(AuthenticatedUser user) {
+        return generateTimer.record(() -> {
+            JwtKeyRing.SigningKey signer = keys.signer();
+            Date now = new Date();
+            return Jwts.builder()
+                    .setHeaderParam(JwsHeader.KEY_ID, signer.kid())
+                    .setId(newId())
+                    .setSubject(user.email())
+                    .claim(USER_ID, user.id())
+                    .claim(PROFILE_VERSION, user.profileVersion())
+                    .claim(TOKEN_USE, REFRESH)
+                    .setIssuedAt(now)
+                    .setExpiration(new Date(now.getTime() + refreshTtlMs))
+                    .signWith(signer.key(), signer.algorithm())
+                    .compact();
+        });
+    }
+
+    /**
+     * Returns what a valid token says, throwing a {@link JwtException} otherwise. Whether it may be
+     * used (access vs. refresh, revoked) is up to the caller. A token that was verified before
+     * (same bytes, not yet expired, signing key still published) skips the signature check.
+     */
+    public VerifiedToken validate(String token) {
+        String digest = digest(token);
+        VerifiedToken hit = cached(digest);
+        if (hit != null) return hit;
+
+        Jws<Claims> jws = sampler.sample()
+                ? verifyTimer.record(() -> parser.parseClaimsJws(token))
+                : parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        AuthenticatedUser user = new AuthenticatedUser(
+                claims.get(USER_ID, Long.class),
+                claims.getSubject(),
+                claims.get(FIRST_NAME, String.class),
+                claims.get(LAST_NAME, String.class),
+                claims.get(PROFILE_VERSION, Long.class));
+        Date exp = claims.getExpiration();
+        VerifiedToken result = new VerifiedToken(user, claims.getId(), jws.getHeader().getKeyId(),
+                REFRESH.equals(claims.get(TOKEN_USE, String.class)),
+                exp == null ? Long.MAX_VALUE : exp.getTime());
+        if (exp != null) {
+            verified.put(digest, result);
+        }
+        return result;
     }
 
     public String validateAndGetSubject(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return validate(token).user().email();
+    }
+
+    /**
+     * The token as {@link #validate} verified it earlier, or null if it isn't cached (unknown,
+     * invalid, expired). Never checks a signature, so it is safe to call before any rate limit.
+     */
+    public VerifiedToken verifiedBefore(String token) {
+        return cached(digest(token));
+    }
+
+    private VerifiedToken cached(String digest) {
+        VerifiedToken hit = verified.getIfPresent(digest);
+        // the key must still be published: removing it from the ring revokes its tokens at once
+        if (hit != null && hit.expiresAtMs() > System.currentTimeMillis() && keys.verifier(hit.kid()) != null) {
+            return hit;
+        }
+        return null;
+    }
+
+    // 128 random bits, 22 characters
+    private static String newId() {
+        byte[] id = new byte[16];
+        IDS.nextBytes(id);
+        return ID_ENCODER.encodeToString(id);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A verified token: who it is for, its id ({@code jti}, may be null), the key it was signed
+     * with, whether it is a refresh token, and its exp.
+     */
+    public record VerifiedToken(AuthenticatedUser user, String jti, String kid, boolean refresh, long expiresAtMs) { }
+
+    /** Picks the verification key by {@code kid} and refuses a header alg that doesn't match it. */
+    private static final class KidResolver extends SigningKeyResolverAdapter {
+        private final JwtKeyRing keys;
+
+        KidResolver(JwtKeyRing keys) { this.keys = keys; }
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            JwtKeyRing.VerificationKey key = keys.verifier(header.getKeyId());
+            if (key == null) {
+                throw new SignatureException("Unknown signing key id: " + header.getKeyId());
+            }
+            if (!key.algorithm().getValue().equals(header.getAlgorithm())) {
+                throw new SignatureException("Algorithm " + header.getAlgorithm() + " not allowed for key " + key.kid());
+            }
+            return key.key();
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMs = value.expiresAtMs() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
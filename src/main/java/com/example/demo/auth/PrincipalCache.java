@@ -0,0 +1,44 @@
+// src/main/java/com/example/demo/auth/PrincipalCache.java
+package com.example.demo.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of the current user state (id, names, profile version) keyed by the
+ * JWT subject (the email), so {@link JwtAuthFilter} can check a token's profile version without
+ * hitting the database on every request.
+ * Hit/miss/eviction stats are exported as {@code cache.*{cache="auth.principals"}}.
+ */
+@Component
+public class PrincipalCache {
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public PrincipalCache(MeterRegistry registry,
+                          @Value("${app.auth.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${app.auth.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "auth.principals");
+    }
+
+    /** Returns the cached principal, loading it (and caching it) on a miss. Loader failures are not cached. */
+    public AuthenticatedUser get(String subject, Function<String, AuthenticatedUser> loader) {
+        return cache.get(subject, loader);
+    }
+
+    /** Drop the principal for this subject, e.g. after the user was updated or deleted. */
+    public void evict(String subject) {
+        if (subject != null) cache.invalidate(subject);
+    }
+}
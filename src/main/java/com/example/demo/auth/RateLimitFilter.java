@@ -0,0 +1,177 @@
+// src/main/java/com/example/demo/auth/RateLimitFilter.java
+package com.example.demo.auth;
+
+import com.example.demo.config.ErrorBodies;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client request budgets, applied ahead of {@link JwtAuthFilter}: POST /auth/login,
+ * POST /auth/register and POST /auth/refresh are limited per remote address, /api/** per token
+ * subject once {@link JwtAuthFilter} has verified that token, per address before that. The limiter
+ * itself never checks a signature: it only looks the token up in {@link JwtService}'s verified
+ * cache, so a flood of new or forged tokens is throttled per address before any of them costs a
+ * verify. A rejected request gets 429 with Retry-After and never reaches the BCrypt pool or the
+ * database.
+ * <p>
+ * Each budget is a token bucket in GCRA form: one {@link AtomicLong} per key holds the
+ * theoretical arrival time and is advanced with a CAS, so the hot path takes no lock. Keys live
+ * in a bounded Caffeine map and expire once idle for a full period; by then the bucket would be
+ * full again, so eviction never hands a client more than its budget.
+ * <p>
+ * Metrics: {@code http.ratelimit.requests{bucket,outcome}} (counter).
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final JwtService jwt;
+    private final boolean enabled;
+    private final Budget login;
+    private final Budget register;
+    private final Budget refresh;
+    private final Budget api;
+
+    public RateLimitFilter(JwtService jwt,
+                           MeterRegistry registry,
+                           @Value("${app.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${app.ratelimit.max-keys:100000}") long maxKeys,
+                           @Value("${app.ratelimit.login:10/PT1M}") String login,
+                           @Value("${app.ratelimit.register:5/PT1M}") String register,
+                           @Value("${app.ratelimit.refresh:30/PT1M}") String refresh,
+                           @Value("${app.ratelimit.api:100/PT1S}") String api) {
+        this.jwt = jwt;
+        this.enabled = enabled;
+        this.login = Budget.parse("login", login, maxKeys, registry);
+        this.register = Budget.parse("register", register, maxKeys, registry);
+        this.refresh = Budget.parse("refresh", refresh, maxKeys, registry);
+        this.api = Budget.parse("api", api, maxKeys, registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        String path = req.getRequestURI().substring(req.getContextPath().length());
+        Budget budget;
+        String key;
+        if (path.startsWith("/api/")) {
+            budget = api;
+            key = subjectOrAddress(req);
+        } else if ("POST".equals(req.getMethod()) && path.equals("/auth/login")) {
+            budget = login;
+            key = req.getRemoteAddr();
+        } else if ("POST".equals(req.getMethod()) && path.equals("/auth/register")) {
+            budget = register;
+            key = req.getRemoteAddr();
+        } else if ("POST".equals(req.getMethod()) && path.equals("/auth/refresh")) {
+            budget = refresh;
+            key = req.getRemoteAddr();
+        } else {
+            chain.doFilter(req, res);
+            return;
+        }
+
+        long waitNanos = budget.acquire(key);
+        if (waitNanos == 0) {
+            chain.doFilter(req, res);
+        } else {
+            reject(req, res, waitNanos);
+        }
+    }
+
+    /** Subject of a token verified on an earlier request; anything else (new, forged, expired) counts per address. */
+    private String subjectOrAddress(HttpServletRequest req) {
+        String auth = req.getHeader(HttpHeaders.AUTHORIZATION);
+        if (auth != null && auth.startsWith("Bearer ")) {
+            JwtService.VerifiedToken token = jwt.verifiedBefore(auth.substring(7));
+            if (token != null && token.user().email() != null) return "sub:" + token.user().email();
+        }
+        return "ip:" + req.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletRequest req, HttpServletResponse res, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        res.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        ErrorBodies.write(res, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded", req.getRequestURI());
+    }
+
+    /** {@code limit} requests per {@code period}, all of which may arrive at once. */
+    static final class Budget {
+        private final long intervalNanos;
+        private final long periodNanos;
+        private final Cache<String, AtomicLong> arrivals;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        Budget(String name, int limit, Duration period, long maxKeys, MeterRegistry registry) {
+            if (limit <= 0 || period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("Invalid rate limit for " + name + ": " + limit + "/" + period);
+            }
+            this.periodNanos = period.toNanos();
+            this.intervalNanos = periodNanos / limit;
+            this.arrivals = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(period)
+                    .build();
+            this.allowed = counter(registry, name, "allowed");
+            this.rejected = counter(registry, name, "rejected");
+        }
+
+        /** Parses {@code "<limit>/<ISO-8601 duration>"}, e.g. {@code 10/PT1M}. */
+        static Budget parse(String name, String spec, long maxKeys, MeterRegistry registry) {
+            int slash = spec.indexOf('/');
+            if (slash < 0) {
+                throw new IllegalArgumentException("app.ratelimit." + name + " must look like 10/PT1M, got " + spec);
+            }
+            return new Budget(name,
+                    Integer.parseInt(spec.substring(0, slash).trim()),
+                    Duration.parse(spec.substring(slash + 1).trim()),
+                    maxKeys, registry);
+        }
+
+        private static Counter counter(MeterRegistry registry, String bucket, String outcome) {
+            return Counter.builder("http.ratelimit.requests")
+                    .tag("bucket", bucket)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+
+        /** Takes one token for {@code key}; returns 0 when allowed, otherwise the nanos until one is available. */
+        long acquire(String key) {
+            long now = System.nanoTime();
+            AtomicLong tat = arrivals.get(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long wait = next - now - periodNanos;
+                if (wait > 0) {
+                    rejected.increment();
+                    return wait;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    allowed.increment();
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+// src/main/java/com/example/demo/auth/RevocationList.java
+package com.example.demo.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids ({@code jti}) of revoked tokens, checked by {@link JwtAuthFilter} on every request and by
+ * POST /auth/refresh. Held in Bloom filters rather than a set: a check is a few word reads with no
+ * allocation, and memory stays fixed however many tokens are revoked. A false positive (rate
+ * {@code fpp} while a generation holds at most {@code expected-revocations} ids) rejects a good
+ * token, and the client logs in again.
+ * <p>
+ * A revoked id only has to be remembered until the token expires, at most {@code app.jwt.refresh-ttl}
+ * after revocation. Ids go into the current generation; once it is a refresh-ttl old it becomes the
+ * previous one, and the previous one is dropped, so every id is kept for at least one full
+ * refresh-ttl and old ids never pile up. Both generations sit in one immutable holder, so a check
+ * racing a rotation sees either the old pair or the new one, never a mix that misses the
+ * generation being rotated out. Revocations are serialized, so revoking is also an atomic
+ * check-and-set: of two requests consuming the same refresh token, exactly one gets {@code true}.
+ * <p>
+ * Every {@code snapshot-interval} (and at shutdown) changed filters are written to
+ * {@code snapshot-file}, which is read back at startup; revocations made after the last snapshot
+ * are lost on a crash. The list is per instance: with several instances, revoked ids would have
+ * to be shared between them.
+ * <p>
+ * Metrics: {@code auth.jwt.revocations} (counter).
+ */
+@Component
+public class RevocationList {
+    private static final Logger log = LoggerFactory.getLogger(RevocationList.class);
+    private static final int SNAPSHOT_MAGIC = 0x52564B31; // "RVK1"
+
+    private record Generation(long startedAtMs, BloomFilter filter, AtomicLong size) { }
+
+    /** {@code previous} is null when nothing is older than the current generation. */
+    private record Generations(Generation current, Generation previous) {
+        boolean mightContain(String jti) {
+            return current.filter().mightContain(jti) || (previous != null && previous.filter().mightContain(jti));
+        }
+    }
+
+    private final long generationMs;
+    private final long expected;
+    private final double fpp;
+    private final Path snapshotFile;
+    private final ScheduledExecutorService snapshotter;
+    private final Counter revocations;
+
+    private volatile Generations generations; // replaced under the lock, read without it
+    private volatile boolean dirty;
+    private final Object snapshotLock = new Object();
+
+    public RevocationList(MeterRegistry registry,
+                          @Value("${app.jwt.refresh-ttl:P14D}") Duration refreshTtl,
+                          @Value("${app.jwt.revocation.expected-revocations:100000}") long expected,
+                          @Value("${app.jwt.revocation.fpp:0.000001}") double fpp,
+                          @Value("${app.jwt.revocation.snapshot-file:}") String snapshotFile,
+                          @Value("${app.jwt.revocation.snapshot-interval:PT1M}") Duration snapshotInterval) {
+        this.generationMs = refreshTtl.toMillis();
+        this.expected = expected;
+        this.fpp = fpp;
+        this.revocations = Counter.builder("auth.jwt.revocations").register(registry);
+        this.generations = new Generations(newGeneration(System.currentTimeMillis()), null);
+
+        if (snapshotFile == null || snapshotFile.isBlank()) {
+            this.snapshotFile = null;
+            this.snapshotter = null;
+            log.warn("No app.jwt.revocation.snapshot-file: revoked tokens become valid again after a restart");
+            return;
+        }
+        this.snapshotFile = Path.of(snapshotFile);
+        load();
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("jwt-revocations-"));
+        long every = snapshotInterval.toMillis();
+        snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, every, every, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (snapshotter == null) return;
+        snapshotter.shutdownNow();
+        snapshotQuietly();
+    }
+
+    /**
+     * Revokes a token until {@code expiresAtMs}. Returns false if there is nothing to do: no id,
+     * already expired, or (probably) revoked before.
+     */
+    public synchronized boolean revoke(String jti, long expiresAtMs) {
+        long now = System.currentTimeMillis();
+        if (jti == null || expiresAtMs <= now) return false;
+        rotate(now);
+        if (generations.mightContain(jti)) return false;
+
+        Generation g = generations.current();
+        if (!g.filter().put(jti)) return false;
+        dirty = true;
+        revocations.increment();
+        if (g.size().incrementAndGet() == expected + 1) {
+            log.warn("More than {} tokens revoked within one generation; false positives will exceed {}", expected, fpp);
+        }
+        return true;
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && generations.mightContain(jti);
+    }
+
+    synchronized void rotate(long now) {
+        Generation c = generations.current();
+        if (now - c.startedAtMs() < generationMs) return;
+        if (now - c.startedAtMs() < 2 * generationMs) {
+            generations = new Generations(newGeneration(c.startedAtMs() + generationMs), c);
+        } else { // idle for two generations: everything revoked so far has expired
+            generations = new Generations(newGeneration(now), null);
+        }
+        dirty = true;
+    }
+
+    // not under the revocation lock: revoking never waits for disk
+    void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            if (!dirty) return;
+            dirty = false; // revocations from here on mark it again
+            try {
+                write(generations);
+            } catch (IOException e) {
+                dirty = true;
+                throw e;
+            }
+        }
+    }
+
+    private void write(Generations g) throws IOException {
+        Generation c = g.current(), p = g.previous();
+        Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(p == null ? 1 : 2);
+            write(out, c);
+            if (p != null) write(out, p);
+        }
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void load() {
+        if (!Files.exists(snapshotFile)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("not a revocation snapshot");
+            int count = in.readInt();
+            Generation c = read(in);
+            Generation p = count > 1 ? read(in) : null;
+            synchronized (this) {
+                generations = new Generations(c, p);
+                rotate(System.currentTimeMillis());
+            }
+            log.info("Loaded revoked token ids from {}", snapshotFile);
+        } catch (IOException e) {
+            log.warn("Cannot read {}, starting with no revoked tokens: {}", snapshotFile, e.toString());
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            rotate(System.currentTimeMillis());
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Writing revoked token ids to {} failed", snapshotFile, e);
+        }
+    }
+
+    private Generation newGeneration(long startedAtMs) {
+        return new Generation(startedAtMs, new BloomFilter(expected, fpp), new AtomicLong());
+    }
+
+    private static void write(DataOutput out, Generation g) throws IOException {
+        out.writeLong(g.startedAtMs());
+        out.writeLong(g.size().get());
+        g.filter().writeTo(out);
+    }
+
+    private static Generation read(DataInput in) throws IOException {
+        long startedAtMs = in.readLong();
+        long size = in.readLong();
+        return new Generation(startedAtMs, BloomFilter.readFrom(in), new AtomicLong(size));
+    }
+}
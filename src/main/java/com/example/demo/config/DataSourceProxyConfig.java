@@ -0,0 +1,39 @@
+// src/main/java/com/example/demo/config/DataSourceProxyConfig.java
+package com.example.demo.config;
+
+import com.example.demo.jdbc.SqlMetrics;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the pool in a datasource-proxy that reports every statement to {@link SqlMetrics}.
+ * Everything above it (Hibernate, JdbcTemplate, Flyway) goes through the proxy; Boot's pool
+ * metrics and health still reach Hikari through {@code unwrap}.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    // static: a BeanPostProcessor must not pull its configuration class (and its deps) in early
+    @Bean
+    static BeanPostProcessor sqlMetricsDataSourceProxy(ObjectProvider<SqlMetrics> metrics,
+                                                       @Value("${app.sql.metrics.enabled:true}") boolean enabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(metrics.getObject())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+// src/main/java/com/example/demo/config/DbConstraints.java
+package com.example.demo.config;
+
+import org.springframework.core.NestedExceptionUtils;
+
+import java.util.Locale;
+
+/**
+ * Tells which named constraint (fk_post_user, uk_user_email, ...) a failed write broke, so callers
+ * can map it to a fixed message. The driver's message carries SQL and schema names and must not
+ * reach a client; log the exception instead.
+ */
+public final class DbConstraints {
+
+    private DbConstraints() { }
+
+    public static boolean violates(Throwable ex, String constraint) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof org.hibernate.exception.ConstraintViolationException cve
+                    && cve.getConstraintName() != null
+                    && cve.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        // some drivers/dialects don't extract the name; fall back to the driver message
+        String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(constraint);
+    }
+}
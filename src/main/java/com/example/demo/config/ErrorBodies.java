@@ -0,0 +1,132 @@
+// src/main/java/com/example/demo/config/ErrorBodies.java
+package com.example.demo.config;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Renders the JSON error body {@code {"status","error","message","path","timestamp"}} straight to
+ * bytes. Everything up to the path is fixed per (status, message) and encoded once; the
+ * timestamp is re-formatted at most once per second. A 404 or 403 then costs one array copy
+ * plus escaping the path, instead of a LinkedHashMap, an OffsetDateTime and a Jackson pass.
+ * <p>
+ * Messages are the constant reasons our code throws, so the cache stays small; it is capped
+ * anyway and anything past the cap is encoded per call.
+ */
+public final class ErrorBodies {
+    private static final int MAX_CACHED_HEADS = 256;
+    private static final JsonStringEncoder JSON = JsonStringEncoder.getInstance();
+    private static final byte[] PATH_TO_TIMESTAMP = ascii("\",\"timestamp\":\"");
+    private static final byte[] TAIL = ascii("\"}");
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final ConcurrentMap<Head, byte[]> HEADS = new ConcurrentHashMap<>();
+    private static volatile Stamp stamp = Stamp.of(System.currentTimeMillis() / 1000);
+
+    private ErrorBodies() { }
+
+    public static ResponseEntity<byte[]> response(HttpStatusCode status, String message, String path) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(render(status, message, path));
+    }
+
+    /** For filters, entry points and handlers that run outside Spring MVC. */
+    public static void write(HttpServletResponse res, HttpStatusCode status, String message, String path)
+            throws IOException {
+        byte[] body = render(status, message, path);
+        res.setStatus(status.value());
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        res.setContentLength(body.length);
+        res.getOutputStream().write(body);
+    }
+
+    public static byte[] render(HttpStatusCode status, String message, String path) {
+        byte[] head = head(status.value(), message);
+        byte[] quotedPath = path == null ? EMPTY : JSON.quoteAsUTF8(path);
+        byte[] time = timestampBytes();
+
+        byte[] body = new byte[head.length + quotedPath.length + PATH_TO_TIMESTAMP.length + time.length + TAIL.length];
+        int at = 0;
+        System.arraycopy(head, 0, body, at, head.length);
+        at += head.length;
+        System.arraycopy(quotedPath, 0, body, at, quotedPath.length);
+        at += quotedPath.length;
+        System.arraycopy(PATH_TO_TIMESTAMP, 0, body, at, PATH_TO_TIMESTAMP.length);
+        at += PATH_TO_TIMESTAMP.length;
+        System.arraycopy(time, 0, body, at, time.length);
+        at += time.length;
+        System.arraycopy(TAIL, 0, body, at, TAIL.length);
+        return body;
+    }
+
+    /** Reason phrase for a status code, "Error" for codes HttpStatus doesn't know. */
+    public static String reasonPhrase(HttpStatusCode status) {
+        HttpStatus known = HttpStatus.resolve(status.value());
+        return known == null ? "Error" : known.getReasonPhrase();
+    }
+
+    /** Same value the rendered bodies carry: ISO-8601 with offset, second precision. */
+    public static String timestamp() {
+        return currentStamp().text();
+    }
+
+    private static byte[] timestampBytes() {
+        return currentStamp().bytes();
+    }
+
+    private static Stamp currentStamp() {
+        long second = System.currentTimeMillis() / 1000;
+        Stamp s = stamp;
+        if (s.epochSecond() != second) {
+            s = Stamp.of(second);
+            stamp = s; // racing threads format the same second; last write wins
+        }
+        return s;
+    }
+
+    private static byte[] head(int status, String message) {
+        Head key = new Head(status, message);
+        byte[] head = HEADS.get(key);
+        if (head != null) return head;
+
+        head = encodeHead(status, message);
+        if (HEADS.size() < MAX_CACHED_HEADS) HEADS.putIfAbsent(key, head);
+        return head;
+    }
+
+    private static byte[] encodeHead(int status, String message) {
+        String error = reasonPhrase(HttpStatusCode.valueOf(status));
+        StringBuilder sb = new StringBuilder(96)
+                .append("{\"status\":").append(status)
+                .append(",\"error\":\"").append(JSON.quoteAsString(error))
+                .append("\",\"message\":\"").append(JSON.quoteAsString(message == null ? error : message))
+                .append("\",\"path\":\"");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record Head(int status, String message) { }
+
+    private record Stamp(long epochSecond, String text, byte[] bytes) {
+        static Stamp of(long epochSecond) {
+            String text = OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault()).toString();
+            return new Stamp(epochSecond, text, ascii(text));
+        }
+    }
+}
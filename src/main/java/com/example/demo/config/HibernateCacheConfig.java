@@ -0,0 +1,91 @@
+// src/main/java/com/example/demo/config/HibernateCacheConfig.java
+package com.example.demo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Hibernate second-level and query cache on a local Caffeine JCache manager (one per application
+ * context, so test contexts don't share entries). Each region is created here with its own size
+ * and TTL; {@code hibernate.cache.hit.ratio{region=...}} gauges sit next to Hibernate's own
+ * {@code hibernate.second.level.cache.requests} / {@code hibernate.cache.query.requests} meters.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    public static final String USERS = "users";
+    public static final String POSTS = "posts";
+    public static final String USERS_BY_EMAIL = "users.byEmail";
+    // Hibernate's own: last write per table, checked before a query-cache hit is trusted; must not expire
+    static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager(@Value("${app.cache.users.max-size:10000}") long usersSize,
+                                       @Value("${app.cache.users.ttl:PT10M}") Duration usersTtl,
+                                       @Value("${app.cache.posts.max-size:5000}") long postsSize,
+                                       @Value("${app.cache.posts.ttl:PT10M}") Duration postsTtl,
+                                       @Value("${app.cache.users-by-email.max-size:10000}") long byEmailSize,
+                                       @Value("${app.cache.users-by-email.ttl:PT10M}") Duration byEmailTtl) {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        manager.createCache(USERS, region(usersSize, usersTtl));
+        manager.createCache(POSTS, region(postsSize, postsTtl));
+        manager.createCache(USERS_BY_EMAIL, region(byEmailSize, byEmailTtl));
+        manager.createCache(UPDATE_TIMESTAMPS, new CaffeineConfiguration<>());
+        return manager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return props -> props.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Bean
+    MeterBinder hibernateCacheHitRatio(EntityManagerFactory emf) {
+        return registry -> {
+            Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+            for (String region : new String[]{USERS, POSTS}) {
+                hitRatio(registry, stats, region, s -> s.getDomainDataRegionStatistics(region));
+            }
+            hitRatio(registry, stats, USERS_BY_EMAIL, s -> s.getQueryRegionStatistics(USERS_BY_EMAIL));
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maxSize));
+        config.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        config.setStatisticsEnabled(true);
+        return config;
+    }
+
+    private static void hitRatio(MeterRegistry registry, Statistics stats,
+                                 String region, Function<Statistics, CacheRegionStatistics> regionStats) {
+        Gauge.builder("hibernate.cache.hit.ratio", stats, s -> {
+                    CacheRegionStatistics r = regionStats.apply(s);
+                    long lookups = r == null ? 0 : r.getHitCount() + r.getMissCount();
+                    return lookups == 0 ? Double.NaN : (double) r.getHitCount() / lookups;
+                })
+                .tag("region", region)
+                .register(registry);
+    }
+}
@@ -0,0 +1,25 @@
+// src/main/java/com/example/demo/config/MetricsSampler.java
+package com.example.demo.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a hot-path call is timed ({@code app.metrics.sample-rate}, 0..1). Used where the
+ * work itself takes microseconds, so two clock reads and a histogram update per call would be a
+ * noticeable share of it. Latency distributions stay representative; the count of a sampled timer
+ * is roughly rate × calls, so use the matching counters or cache stats for throughput.
+ */
+public final class MetricsSampler {
+    private final double rate;
+
+    public MetricsSampler(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("app.metrics.sample-rate must be within [0, 1], got " + rate);
+        }
+        this.rate = rate;
+    }
+
+    public boolean sample() {
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
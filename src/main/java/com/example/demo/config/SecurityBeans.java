@@ -1,6 +1,9 @@
 // src/main/java/com/example/demo/config/SecurityBeans.java
 package com.example.demo.config;
 
+import com.example.demo.auth.InstrumentedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -8,5 +11,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class SecurityBeans {
-    @Bean public PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+    // work factor (log2 rounds, 4..31); existing hashes keep verifying since the cost is stored in the hash
+    @Bean public PasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt.strength:10}") int strength,
+                                                 MeterRegistry registry) {
+        return new InstrumentedPasswordEncoder(new BCryptPasswordEncoder(strength), registry);
+    }
 }
@@ -2,8 +2,10 @@
 package com.example.demo.config;
 
 import com.example.demo.auth.JwtAuthFilter;
+import com.example.demo.auth.RateLimitFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
@@ -12,7 +14,10 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @Configuration
 public class SecurityConfig {
     private final JwtAuthFilter jwtFilter;
-    public SecurityConfig(JwtAuthFilter jwtFilter) { this.jwtFilter = jwtFilter; }
+    private final RateLimitFilter rateLimitFilter;
+    public SecurityConfig(JwtAuthFilter jwtFilter, RateLimitFilter rateLimitFilter) {
+        this.jwtFilter = jwtFilter; this.rateLimitFilter = rateLimitFilter;
+    }
 
     @Bean
     SecurityFilterChain security(HttpSecurity http) throws Exception {
@@ -22,11 +27,20 @@ public class SecurityConfig {
                 .formLogin(f -> f.disable())
                 .httpBasic(b -> b.disable())
                 .headers(h -> h.frameOptions(f -> f.sameOrigin()))
+                // 403 for missing/invalid tokens as before, but with the standard (cached) error body
+                .exceptionHandling(e -> e
+                        .authenticationEntryPoint((req, res, ex) ->
+                                ErrorBodies.write(res, HttpStatus.FORBIDDEN, "Access denied", req.getRequestURI()))
+                        .accessDeniedHandler((req, res, ex) ->
+                                ErrorBodies.write(res, HttpStatus.FORBIDDEN, "Access denied", req.getRequestURI()))
+                )
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/**", "/h2-console/**", "/actuator/**").permitAll()
+                        .requestMatchers("/auth/**", "/h2-console/**", "/actuator/**", "/.well-known/jwks.json").permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                // throttle before any signature check, DB lookup or BCrypt work
+                .addFilterBefore(rateLimitFilter, JwtAuthFilter.class);
         return http.build();
     }
 }
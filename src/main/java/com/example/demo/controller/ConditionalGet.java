@@ -0,0 +1,53 @@
+package com.example.demo.controller;
+
+import com.example.demo.repository.VersionStamp;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET from a {@link VersionStamp}: a strong ETag over (resource, request parameters,
+ * row count, newest updatedAt). The stamp comes from a single aggregate query, so a 304 is
+ * answered before any entity is loaded or serialized.
+ */
+final class ConditionalGet {
+    private static final String NO_CACHE = CacheControl.noCache().getHeaderValue();
+
+    private ConditionalGet() { }
+
+    /**
+     * For a single row: 304 (returns null, headers already written) if the client's copy is
+     * current, otherwise 200 with {@code body}. Also sends Last-Modified, which a list must not:
+     * see {@link VersionStamp}.
+     */
+    static <T> ResponseEntity<T> respond(ServletWebRequest request, VersionStamp stamp, Supplier<T> body, Object... key) {
+        noCache(request);
+        if (request.checkNotModified(etag(stamp, key), stamp.lastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok(body.get());
+    }
+
+    /** Let clients store the response but always revalidate (instead of Spring Security's no-store). */
+    static void noCache(ServletWebRequest request) {
+        if (request.getResponse() != null) request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, NO_CACHE);
+    }
+
+    static String etag(VersionStamp stamp, Object... key) {
+        String source = Arrays.toString(key) + '|' + stamp.count() + '|' + stamp.lastModified();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.controller;
+
+import com.example.demo.repository.VersionStamp;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON bodies of hot read endpoints, together with their ETag, so a
+ * repeated read is a map lookup plus a byte copy: no version query, no entity query, no Jackson.
+ * <p>
+ * Keys are {@code region/...} paths (e.g. {@code posts-by-user/42/}); the controllers that write
+ * evict the affected prefixes after commit. A reader that started before an eviction removes
+ * its own put if the eviction could have missed it, so a slow reader can't leave a body older
+ * than the write that invalidated it.
+ * Bounded by total body bytes; stats are exported as {@code cache.*{cache="http.responses"}}.
+ */
+@Component
+public class JsonResponseCache {
+    public static final String POSTS = "posts/";
+    public static final String POSTS_BY_USER = "posts-by-user/";
+    public static final String USER = "user/";
+    public static final String USERS = "users/";
+
+    private final ObjectMapper mapper;
+    private final Cache<String, Entry> cache;
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+
+    public JsonResponseCache(ObjectMapper mapper,
+                             MeterRegistry registry,
+                             @Value("${app.http.response-cache.enabled:true}") boolean enabled,
+                             @Value("${app.http.response-cache.max-size:64MB}") DataSize maxSize) {
+        this.mapper = mapper;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry e) -> key.length() + e.body().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "http.responses");
+    }
+
+    public static String postsByUser(Long userId) { return POSTS_BY_USER + userId + "/"; }
+
+    public static String user(Long userId) { return USER + userId + "/"; }
+
+    /**
+     * Conditional GET served from the cache when possible. On a miss the stamp is queried first
+     * (a 304 still needs no body), then the body is built, serialized once and stored. These are
+     * lists, so validation is by ETag only; a Last-Modified would survive deletes ({@link VersionStamp}).
+     */
+    ResponseEntity<byte[]> respond(ServletWebRequest request, String key,
+                                   Supplier<VersionStamp> stamp, Supplier<?> body) {
+        ConditionalGet.noCache(request);
+        Entry hit = enabled ? cache.getIfPresent(key) : null;
+        if (hit != null) {
+            return request.checkNotModified(hit.etag()) ? null : ok(hit.body());
+        }
+
+        long seen = generation.get();
+        VersionStamp version = stamp.get();
+        String etag = ConditionalGet.etag(version, key);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        byte[] json;
+        try {
+            json = mapper.writeValueAsBytes(body.get());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + key, e);
+        }
+        if (enabled) {
+            cache.put(key, new Entry(etag, json));
+            // an evict() that began after `seen` may have missed this put (it bumps the generation
+            // before removing), so drop it ourselves; a fresh entry dropped here is only a miss
+            if (generation.get() != seen) cache.invalidate(key);
+        }
+        return ok(json);
+    }
+
+    /** Drop every cached response whose key starts with one of the prefixes. */
+    public void evict(String... prefixes) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> {
+            for (String prefix : prefixes) {
+                if (key.startsWith(prefix)) return true;
+            }
+            return false;
+        });
+    }
+
+    private static ResponseEntity<byte[]> ok(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private record Entry(String etag, byte[] body) { }
+}
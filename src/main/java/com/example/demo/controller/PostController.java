@@ -1,13 +1,39 @@
 package com.example.demo.controller;
 
+import com.example.demo.api.dto.BulkResult;
+import com.example.demo.api.dto.CursorPage;
+import com.example.demo.api.dto.PendingPost;
+import com.example.demo.api.dto.PostSummary;
 import com.example.demo.entity.Post;
-import com.example.demo.entity.User;
 import com.example.demo.repository.PostRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.VersionStamp;
+import com.example.demo.search.PostSearchIndex;
+import com.example.demo.service.PostIngestService;
+import com.example.demo.service.PostWriteBehindService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.security.Principal;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -15,38 +41,194 @@ public class PostController {
 
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final PostIngestService ingestService;
+    private final PostWriteBehindService writeBehind;
+    private final Validator validator;
+    private final PostSearchIndex searchIndex;
+    private final JsonResponseCache responses;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public PostController(PostRepository postRepository, UserRepository userRepository) {
+    public PostController(PostRepository postRepository,
+                          UserRepository userRepository,
+                          PostIngestService ingestService,
+                          PostWriteBehindService writeBehind,
+                          Validator validator,
+                          PostSearchIndex searchIndex,
+                          JsonResponseCache responses,
+                          ObjectMapper objectMapper,
+                          EntityManager entityManager,
+                          PlatformTransactionManager txManager,
+                          @Value("${app.posts.page.default-size:50}") int defaultPageSize,
+                          @Value("${app.posts.page.max-size:500}") int maxPageSize) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
+        this.ingestService = ingestService;
+        this.writeBehind = writeBehind;
+        this.validator = validator;
+        this.searchIndex = searchIndex;
+        this.responses = responses;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
-    // 📌 Get all posts
+    // 📌 Get all posts, newest first, one keyset page at a time (?cursor=<next>&size=N)
+    // conditional: If-None-Match / If-Modified-Since are checked against count + max(updatedAt) first
+    // hot path: pages are kept serialized in JsonResponseCache until a post is written
     @GetMapping
-    public List<Post> getAllPosts() {
-        return postRepository.findAll();
+    public ResponseEntity<byte[]> getAllPosts(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size,
+                                              ServletWebRequest request) {
+        int limit = pageSize(size);
+        PostCursor after = cursor == null ? null : PostCursor.decode(cursor);
+        return responses.respond(request, JsonResponseCache.POSTS + cursor + "/" + limit,
+                postRepository::stampAll, () -> page(after, limit));
     }
 
-    // 📌 Get posts by userId
+    // 📌 Stream all posts as NDJSON (Accept: application/x-ndjson); heap use stays flat
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllPosts(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<Post> posts = postRepository.streamAll()) {
+                posts.forEach(post -> {
+                    writeLine(out, post);
+                    // don't let the persistence context grow with the table
+                    entityManager.detach(post);
+                });
+            }
+        });
+        out.flush();
+    }
+
+    // 📌 Full-text search over title + content (?q=all+of+these&size=N), newest first
+    // served from the in-memory index; the database is only hit for the matching page
+    @GetMapping("/search")
+    public List<PostSummary> search(@RequestParam String q,
+                                    @RequestParam(required = false) Integer size) {
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must not be blank");
+        }
+        List<Long> ids = searchIndex.search(q, pageSize(size));
+        return ids.isEmpty() ? List.of() : postRepository.findSummariesByIdIn(ids);
+    }
+
+    // 📌 Get one post with its full content (ETag from id + updatedAt)
+    @GetMapping("/{id}")
+    public ResponseEntity<Post> getPost(@PathVariable Long id, ServletWebRequest request) {
+        VersionStamp stamp = postRepository.findUpdatedAtById(id)
+                .map(updatedAt -> new VersionStamp(1L, updatedAt))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
+        return ConditionalGet.respond(request, stamp, () -> postRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found")), "post", id);
+    }
+
+    // 📌 Get posts by userId (ETag from the user's post count + max(updatedAt), body cached serialized)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Post>> getPostsByUser(@PathVariable Long userId) {
-        return userRepository.findById(userId)
-                .map(user -> ResponseEntity.ok(postRepository.findByUser(user)))
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getPostsByUser(@PathVariable Long userId, ServletWebRequest request) {
+        return responses.respond(request, JsonResponseCache.postsByUser(userId), () -> {
+            VersionStamp stamp = postRepository.stampByUserId(userId);
+            // no posts: tell "no posts" from "no user" before tagging an empty list
+            if (stamp.count() == 0 && !userRepository.existsById(userId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+            }
+            return stamp;
+        }, () -> postRepository.findSummariesByUserId(userId));
     }
 
     // 📌 Create post for user
+    // single INSERT: the user is a reference proxy, an unknown userId fails on fk_post_user (-> 404)
+    // with write-behind enabled, "Prefer: respond-async" answers 202 + ticket once the post is in the local log
     @PostMapping("/user/{userId}")
-    public ResponseEntity<Post> createPost(
+    public ResponseEntity<?> createPost(
             @PathVariable Long userId,
-            @RequestBody Post postRequest) {
-
-        return userRepository.findById(userId)
-                .map(user -> {
-                    postRequest.setUser(user);
-                    Post savedPost = postRepository.save(postRequest);
-                    return ResponseEntity.ok(savedPost);
-                })
-                .orElse(ResponseEntity.notFound().build());
+            @RequestBody Post postRequest,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            Principal principal) {
+
+        // Prefer is a hint: without a running writer the post is created synchronously
+        if (writeBehind.isAvailable() && prefer != null && prefer.contains("respond-async")) {
+            return createPostAsync(userId, postRequest, principal.getName());
+        }
+        postRequest.setUser(userRepository.getReferenceById(userId));
+        Post savedPost = postRepository.save(postRequest);
+        responses.evict(JsonResponseCache.POSTS, JsonResponseCache.postsByUser(userId),
+                JsonResponseCache.user(userId), JsonResponseCache.USERS);
+        return ResponseEntity.ok(savedPost);
+    }
+
+    // 📌 Poll an async create: PENDING until the background writer committed it, then DONE (postId) or FAILED
+    // only the submitter's handle resolves; anyone else's is "not found"
+    @GetMapping("/pending/{ticket}")
+    public PendingPost pendingPost(@PathVariable String ticket, Principal principal) {
+        return writeBehind.status(ticket, principal.getName())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ticket not found"));
+    }
+
+    // 📌 Bulk create: JSON array or NDJSON of {userId, title, content}, persisted in batched chunks
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkResult bulkCreate(HttpServletRequest request) throws IOException {
+        try {
+            return ingestService.ingest(request.getInputStream());
+        } finally {
+            // any user may have gained posts; chunks can commit even if a later one fails
+            responses.evict(JsonResponseCache.POSTS, JsonResponseCache.POSTS_BY_USER,
+                    JsonResponseCache.USER, JsonResponseCache.USERS);
+        }
+    }
+
+    private ResponseEntity<PendingPost> createPostAsync(Long userId, Post postRequest, String submitter) {
+        // nothing reports back later except the ticket status, so reject bad input now
+        if (!validator.validateProperty(postRequest, "title").isEmpty()
+                || !validator.validateProperty(postRequest, "content").isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "title and content are required");
+        }
+        String ticket;
+        try {
+            ticket = writeBehind.submit(userId, postRequest.getTitle(), postRequest.getContent(), submitter);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Post too large for async create");
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/posts/pending/" + ticket))
+                .body(PendingPost.pending(ticket));
+    }
+
+    private CursorPage<PostSummary> page(PostCursor after, int limit) {
+        // fetch one extra row to learn whether there is a next page
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<PostSummary> rows = after == null
+                ? postRepository.findFirstSummaryPage(window)
+                : postRepository.findSummaryPageAfter(after.createdAt(), after.id(), window);
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<PostSummary> page = rows.subList(0, limit);
+        return new CursorPage<>(page, PostCursor.of(page.get(limit - 1)).encode());
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null) return defaultPageSize;
+        if (requested < 1) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be positive");
+        return Math.min(requested, maxPageSize);
+    }
+
+    private void writeLine(OutputStream out, Post post) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(post));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -1,36 +1,87 @@
 // src/main/java/com/example/demo/controller/UserController.java
 package com.example.demo.controller;
 
+import com.example.demo.api.dto.BulkResult;
+import com.example.demo.api.dto.PostSummary;
+import com.example.demo.api.dto.UserResponse;
+import com.example.demo.auth.PrincipalCache;
 import com.example.demo.entity.User;
+import com.example.demo.repository.PostRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.groupingBy;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
     private final UserRepository repo;
+    private final PostRepository posts;
+    private final PrincipalCache principals;
+    private final UserImportService importService;
+    private final JsonResponseCache responses;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public UserController(UserRepository repo) {
+    public UserController(UserRepository repo,
+                          PostRepository posts,
+                          PrincipalCache principals,
+                          UserImportService importService,
+                          JsonResponseCache responses,
+                          @Value("${app.users.page.default-size:50}") int defaultPageSize,
+                          @Value("${app.users.page.max-size:500}") int maxPageSize) {
         this.repo = repo;
+        this.posts = posts;
+        this.principals = principals;
+        this.importService = importService;
+        this.responses = responses;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
-    // GET /api/users
+    // GET /api/users?page=0&size=50[&include=posts]
+    // posts are opt-in and loaded for the whole page in one query (no per-user lazy loads)
+    // conditional + cached serialized until a user (or, with include=posts, a post) is written
     @GetMapping
-    public List<User> all() {
-        return repo.findAll();
+    public ResponseEntity<byte[]> all(@RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(required = false) Integer size,
+                                      @RequestParam(required = false) String include,
+                                      ServletWebRequest request) {
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must not be negative");
+        }
+        int limit = pageSize(size);
+        boolean withPosts = "posts".equals(include);
+        return responses.respond(request, JsonResponseCache.USERS + page + "/" + limit + "/" + withPosts,
+                () -> withPosts ? repo.stampAll().and(posts.stampAll()) : repo.stampAll(),
+                () -> page(page, limit, withPosts));
     }
 
     // GET /api/users/{id}
+    // the body embeds the user's posts, so the ETag covers the user row and the posts' stamp
     @GetMapping("/{id}")
-    public User one(@PathVariable Long id) {
-        return repo.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    public ResponseEntity<byte[]> one(@PathVariable Long id, ServletWebRequest request) {
+        return responses.respond(request, JsonResponseCache.user(id),
+                () -> repo.findUpdatedAtById(id)
+                        .map(updatedAt -> posts.stampByUserId(id).touchedAt(updatedAt))
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")),
+                () -> repo.findById(id)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")));
     }
 
     // POST /api/users
@@ -41,7 +92,20 @@ public class UserController {
         repo.findByEmail(user.getEmail()).ifPresent(u -> {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
         });
-        return repo.save(user);
+        User saved = repo.save(user);
+        responses.evict(JsonResponseCache.USERS);
+        return saved;
+    }
+
+    // POST /api/users/import  (JSON array or NDJSON of {email, password, firstName, lastName})
+    // passwords are hashed in parallel on a bounded pool; existing/duplicate emails are skipped
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkResult importUsers(HttpServletRequest request) throws IOException {
+        try {
+            return importService.importUsers(request.getInputStream());
+        } finally {
+            responses.evict(JsonResponseCache.USERS);
+        }
     }
 
     // PUT /api/users/{id}
@@ -50,6 +114,7 @@ public class UserController {
     public User update(@PathVariable Long id, @RequestBody User incoming) {
         User existing = repo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        String previousEmail = existing.getEmail();
 
         if (incoming.getFirstName() != null) {
             existing.setFirstName(incoming.getFirstName());
@@ -71,17 +136,24 @@ public class UserController {
             existing.setPassword(incoming.getPassword());
         }
 
-        return repo.save(existing);
+        User saved = repo.save(existing);
+        // cached principal still carries the old email/password
+        principals.evict(previousEmail);
+        responses.evict(JsonResponseCache.user(id), JsonResponseCache.USERS);
+        return saved;
     }
 
     // DELETE /api/users/{id}
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
-        if (!repo.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
-        }
-        repo.deleteById(id);
+        User existing = repo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        repo.delete(existing);
+        principals.evict(existing.getEmail());
+        // posts go with the user (cascade)
+        responses.evict(JsonResponseCache.user(id), JsonResponseCache.USERS,
+                JsonResponseCache.postsByUser(id), JsonResponseCache.POSTS);
     }
 
     // Optional: GET /api/users/search?email=alice@example.com
@@ -90,4 +162,24 @@ public class UserController {
         return repo.findByEmail(email)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
     }
+
+    private List<UserResponse> page(int page, int size, boolean withPosts) {
+        List<User> users = repo.findPage(PageRequest.of(page, size));
+
+        if (!withPosts || users.isEmpty()) {
+            return users.stream().map(u -> UserResponse.of(u, null)).toList();
+        }
+        List<Long> ids = users.stream().map(User::getId).toList();
+        Map<Long, List<PostSummary>> postsByUser = posts.findSummariesByUserIdIn(ids).stream()
+                .collect(groupingBy(PostSummary::userId));
+        return users.stream()
+                .map(u -> UserResponse.of(u, postsByUser.getOrDefault(u.getId(), List.of())))
+                .toList();
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null) return defaultPageSize;
+        if (requested < 1) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be positive");
+        return Math.min(requested, maxPageSize);
+    }
 }
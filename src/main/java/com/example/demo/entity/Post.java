@@ -1,15 +1,22 @@
 package com.example.demo.entity;
 
+import com.example.demo.config.HibernateCacheConfig;
+import com.example.demo.search.PostIndexListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.POSTS)
 @Table(name = "posts")
+@EntityListeners(PostIndexListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,8 +24,10 @@ import java.time.LocalDateTime;
 @Builder
 public class Post {
 
+    // pooled sequence (not IDENTITY) so Hibernate can batch INSERTs; allocationSize matches hibernate.jdbc.batch_size
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
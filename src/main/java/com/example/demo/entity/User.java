@@ -1,5 +1,7 @@
 package com.example.demo.entity;
 
+import com.example.demo.config.HibernateCacheConfig;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
@@ -7,11 +9,17 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS)
 @Table(name = "users", uniqueConstraints = {
         @UniqueConstraint(name = "uk_user_email", columnNames = "email")
 })
@@ -22,8 +30,10 @@ import java.util.List;
 @Builder
 public class User {
 
+    // pooled sequence (not IDENTITY) so bulk imports can batch INSERTs, same as Post
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 50)
@@ -43,12 +53,31 @@ public class User {
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)   // <-- accept on input, never return
     private String password;
 
+    // drives the ETag of GET /api/users/{id} together with the posts' updatedAt
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt;
+
+    // profile version: bumped on every update, embedded in tokens (pv) so they go stale with it
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long version;
+
+    // adding/removing posts is not a profile change
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OptimisticLock(excluded = true)
     @JsonManagedReference
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)    // <-- ignore on input, return as [] if empty
     @Builder.Default
     private List<Post> posts = new ArrayList<>();
 
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public void addPost(Post post) {
         posts.add(post);
         post.setUser(this);
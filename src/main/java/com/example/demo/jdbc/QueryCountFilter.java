@@ -0,0 +1,57 @@
+package com.example.demo.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements a request runs on its own thread, security filters included, and
+ * hands the count to {@link SqlMetrics}. Work done on other threads (streamed NDJSON bodies,
+ * write-behind) is not attributed to the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    private final SqlMetrics metrics;
+    private final boolean enabled;
+
+    public QueryCountFilter(SqlMetrics metrics, @Value("${app.sql.metrics.enabled:true}") boolean enabled) {
+        this.metrics = metrics;
+        this.enabled = enabled;
+    }
+
+    static void increment() {
+        int[] count = CURRENT.get();
+        if (count != null) count[0]++;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        int[] count = new int[1];
+        CURRENT.set(count);
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            CURRENT.remove();
+            Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.requestCompleted(req.getMethod(), pattern == null ? "UNKNOWN" : pattern.toString(), count[0]);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * JDBC-level statement metrics, fed by the datasource-proxy wrapped around the pool
+ * (see DataSourceProxyConfig). Replaces {@code spring.jpa.show-sql}.
+ * <ul>
+ *   <li>{@code db.query{shape,outcome}} — timer per statement shape (see {@link SqlShapes}); a JDBC
+ *       batch is one execution. At most {@code app.sql.max-shapes} shapes, the rest share "other".</li>
+ *   <li>{@code http.server.requests.queries{method,uri}} — statements per request
+ *       ({@link QueryCountFilter}).</li>
+ *   <li>Statements slower than {@code app.sql.slow-threshold}, and requests that ran more than
+ *       {@code app.sql.max-per-request} statements (N+1 suspects, also counted in
+ *       {@code http.server.requests.queries.exceeded}), are logged by a background thread.
+ *       When its queue is full, log lines are dropped and counted in {@code db.query.log.dropped}.</li>
+ * </ul>
+ */
+@Component
+public class SqlMetrics implements QueryExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger(SqlMetrics.class);
+    private static final String STARTED_AT = SqlMetrics.class.getName() + ".startedAt";
+    private static final String OTHER = "other";
+
+    private final MeterRegistry registry;
+    private final int maxShapes;
+    private final long slowNanos;
+    private final int maxPerRequest;
+    private final ConcurrentMap<String, Timer> succeeded = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> failed = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor logWriter;
+    private final Counter dropped;
+
+    public SqlMetrics(MeterRegistry registry,
+                      @Value("${app.sql.max-shapes:200}") int maxShapes,
+                      @Value("${app.sql.slow-threshold:PT0.1S}") Duration slowThreshold,
+                      @Value("${app.sql.max-per-request:20}") int maxPerRequest,
+                      @Value("${app.sql.log-queue-capacity:1000}") int logQueueCapacity) {
+        this.registry = registry;
+        this.maxShapes = maxShapes;
+        this.slowNanos = slowThreshold.toNanos();
+        this.maxPerRequest = maxPerRequest;
+        this.dropped = Counter.builder("db.query.log.dropped").register(registry);
+        this.logWriter = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(logQueueCapacity),
+                new CustomizableThreadFactory("sql-log-"),
+                (task, pool) -> dropped.increment());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        logWriter.shutdown();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        if (startedAt == null || queryInfoList.isEmpty()) return;
+        long elapsed = System.nanoTime() - startedAt;
+
+        QueryCountFilter.increment();
+        String sql = queryInfoList.get(0).getQuery();
+        timer(SqlShapes.of(sql), execInfo.isSuccess()).record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (elapsed >= slowNanos) {
+            int batch = execInfo.isBatch() ? execInfo.getBatchSize() : 1;
+            logWriter.execute(() -> log.warn("Slow SQL ({} ms, batch {}): {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), batch, sql));
+        }
+    }
+
+    /** Called once per request by {@link QueryCountFilter}. */
+    void requestCompleted(String method, String uri, int statements) {
+        DistributionSummary.builder("http.server.requests.queries")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(statements);
+
+        if (statements > maxPerRequest) {
+            Counter.builder("http.server.requests.queries.exceeded")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(registry)
+                    .increment();
+            logWriter.execute(() -> log.warn("{} {} ran {} SQL statements (limit {}), possible N+1",
+                    method, uri, statements, maxPerRequest));
+        }
+    }
+
+    private Timer timer(String shape, boolean success) {
+        ConcurrentMap<String, Timer> timers = success ? succeeded : failed;
+        Timer timer = timers.get(shape);
+        if (timer != null) return timer;
+
+        String tag = timers.size() < maxShapes ? shape : OTHER;
+        return timers.computeIfAbsent(tag, t -> Timer.builder("db.query")
+                .tag("shape", t)
+                .tag("outcome", success ? "success" : "error")
+                .register(registry));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.jdbc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.regex.Pattern;
+
+/**
+ * Folds a SQL string into its "shape": literals become {@code ?}, {@code in (?, ?, ...)} lists of
+ * any length become {@code in (?...)}, whitespace is collapsed. Statements that differ only in
+ * their arguments or batch size then share one timer. Hibernate emits the same few strings over
+ * and over, so results are cached by the raw SQL.
+ */
+final class SqlShapes {
+    static final int MAX_LENGTH = 256;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Cache<String, String> SHAPES = Caffeine.newBuilder().maximumSize(2_000).build();
+
+    private SqlShapes() { }
+
+    static String of(String sql) {
+        return SHAPES.get(sql, SqlShapes::normalize);
+    }
+
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?...)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return shape.length() > MAX_LENGTH ? shape.substring(0, MAX_LENGTH) : shape;
+    }
+}
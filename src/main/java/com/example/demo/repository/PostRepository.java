@@ -1,11 +1,79 @@
 package com.example.demo.repository;
 
+import com.example.demo.api.dto.PostSummary;
 import com.example.demo.entity.Post;
-import com.example.demo.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
-    List<Post> findByUser(User user);
+    // List views select PostSummary so the @Lob content is never read in full (excerpt = first
+    // PostSummary.EXCERPT_LENGTH chars). Filters use p.user.id, which is the FK column itself: no join
+    // and no User load.
+    String SELECT_SUMMARY = "select new com.example.demo.api.dto.PostSummary("
+            + " p.id, p.user.id, p.title, p.createdAt,"
+            + " cast(substring(p.content, 1, " + PostSummary.EXCERPT_LENGTH + ") as String))"
+            + " from Post p\n";
+
+    @Query(SELECT_SUMMARY + """
+            where p.user.id = :userId
+            order by p.createdAt desc, p.id desc""")
+    List<PostSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    // One query for the posts of a whole page of users (see UserController ?include=posts).
+    @Query(SELECT_SUMMARY + """
+            where p.user.id in :userIds
+            order by p.createdAt desc, p.id desc""")
+    List<PostSummary> findSummariesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // Hydrates full-text search hits (ids from PostSearchIndex).
+    @Query(SELECT_SUMMARY + """
+            where p.id in :ids
+            order by p.createdAt desc, p.id desc""")
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination, newest first. Pass PageRequest.of(0, n) to bound the page (no count query).
+    @Query(SELECT_SUMMARY + """
+            order by p.createdAt desc, p.id desc""")
+    List<PostSummary> findFirstSummaryPage(Pageable page);
+
+    @Query(SELECT_SUMMARY + """
+            where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)
+            order by p.createdAt desc, p.id desc""")
+    List<PostSummary> findSummaryPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable page);
+
+    // Version stamps for conditional GETs (ETag): one aggregate row, no entities.
+    @Query("select new com.example.demo.repository.VersionStamp(count(p), max(p.updatedAt)) from Post p")
+    VersionStamp stampAll();
+
+    @Query("""
+            select new com.example.demo.repository.VersionStamp(count(p), max(p.updatedAt))
+            from Post p
+            where p.user.id = :userId""")
+    VersionStamp stampByUserId(@Param("userId") Long userId);
+
+    @Query("select p.updatedAt from Post p where p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Cursor-backed scan for NDJSON export; must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Post p order by p.id")
+    Stream<Post> streamAll();
 }
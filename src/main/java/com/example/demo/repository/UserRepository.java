@@ -1,10 +1,45 @@
 package com.example.demo.repository;
 
+import com.example.demo.config.HibernateCacheConfig;
 import com.example.demo.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Hot path (login, /api/me, principal loads): query cache maps email -> id, the entity comes
+    // from the "users" region. Any write to users invalidates the cached results.
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.USERS_BY_EMAIL)
+    })
     Optional<User> findByEmail(String email);
+
+    // Plain page of users in id order; List return type means no count query.
+    @Query("select u from User u order by u.id")
+    List<User> findPage(Pageable page);
+
+    // Batched uniqueness check for imports: which of these emails are already taken (uk_user_email)?
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Version stamp of the whole users table (GET /api/users pages).
+    @Query("select new com.example.demo.repository.VersionStamp(count(u), max(u.updatedAt)) from User u")
+    VersionStamp stampAll();
+
+    // Conditional GET of a single user (combined with PostRepository.stampByUserId).
+    @Query("select u.updatedAt from User u where u.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
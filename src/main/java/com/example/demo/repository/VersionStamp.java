@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Cheap version of a set of rows for conditional GETs: how many there are and the newest
+ * {@code updatedAt}. Any insert, update or delete changes at least one of the two, so the pair
+ * makes a sound ETag. The newest {@code updatedAt} alone does not: deleting a row other than the
+ * newest leaves it unchanged, so only a single row may be dated with Last-Modified.
+ */
+public record VersionStamp(Long count, LocalDateTime lastModified) {
+
+    /** Combine with another timestamp (e.g. the owning row's updatedAt), keeping the newer one. */
+    public VersionStamp touchedAt(LocalDateTime other) {
+        if (other == null || (lastModified != null && !other.isAfter(lastModified))) return this;
+        return new VersionStamp(count, other);
+    }
+
+    /** Stamp of the union of two row sets. */
+    public VersionStamp and(VersionStamp other) {
+        return new VersionStamp(count + other.count, other.lastModified == null ? lastModified
+                : touchedAt(other.lastModified).lastModified);
+    }
+
+    /** Epoch millis for Last-Modified of a single row, or -1 when there is nothing to date. */
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
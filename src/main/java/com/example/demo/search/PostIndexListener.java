@@ -0,0 +1,52 @@
+package com.example.demo.search;
+
+import com.example.demo.entity.Post;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener on {@link Post} (a Spring bean via Hibernate's bean container) that keeps
+ * {@link PostSearchIndex} in step with the table. Changes are applied after the surrounding
+ * transaction commits, so rolled-back writes never show up in search results.
+ */
+@Component
+public class PostIndexListener {
+    private final PostSearchIndex index;
+
+    public PostIndexListener(PostSearchIndex index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void indexPost(Post post) {
+        // capture now: the entity may be detached or changed again by the time we commit
+        long id = post.getId();
+        String title = post.getTitle();
+        String content = post.getContent();
+        afterCommit(() -> index.put(id, title, content));
+    }
+
+    @PostRemove
+    void removePost(Post post) {
+        long id = post.getId();
+        afterCommit(() -> index.remove(id));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.search;
+
+import com.example.demo.entity.Post;
+import com.example.demo.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/** Builds {@link PostSearchIndex} from a streaming scan of the posts table once the app is up. */
+@Component
+class PostIndexLoader {
+    private final PostSearchIndex index;
+    private final PostRepository posts;
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+
+    PostIndexLoader(PostSearchIndex index,
+                    PostRepository posts,
+                    EntityManager em,
+                    PlatformTransactionManager txManager,
+                    @Value("${app.search.rebuild-on-startup:true}") boolean enabled) {
+        this.index = index;
+        this.posts = posts;
+        this.em = em;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuild() {
+        if (!enabled) return;
+        index.rebuild(sink -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<Post> all = posts.streamAll()) {
+                all.forEach(post -> {
+                    sink.accept(post);
+                    em.detach(post);
+                });
+            }
+        }));
+    }
+}
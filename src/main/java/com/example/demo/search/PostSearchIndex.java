@@ -0,0 +1,188 @@
+package com.example.demo.search;
+
+import com.example.demo.entity.Post;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over post titles and content: term -> {@link PostingList} of post ids,
+ * plus post id -> terms so updates and deletes can retract old postings.
+ * <p>
+ * Kept current by {@link PostIndexListener} after each commit and rebuilt on startup by
+ * {@link PostIndexLoader}. Changes that arrive while a rebuild is scanning are queued and
+ * replayed onto the new index before it is swapped in.
+ * <p>
+ * Queries are AND over all terms; matching ids are returned newest (highest id) first.
+ * Metrics: {@code search.index.terms}, {@code search.index.documents}, {@code search.index.bytes}.
+ */
+@Component
+public class PostSearchIndex {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MAX_TERM_LENGTH = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment live = new Segment();
+
+    private final Object rebuildMonitor = new Object();
+    private volatile Queue<Consumer<Segment>> pendingDuringRebuild;
+
+    public PostSearchIndex(MeterRegistry registry) {
+        Gauge.builder("search.index.terms", this, i -> i.read(s -> s.postings.size())).register(registry);
+        Gauge.builder("search.index.documents", this, i -> i.read(s -> s.docs.size())).register(registry);
+        Gauge.builder("search.index.bytes", this, i -> i.read(Segment::postingBytes))
+                .baseUnit("bytes").register(registry);
+    }
+
+    /** Index (or re-index) a post by id. */
+    public void put(long id, String title, String content) {
+        String[] terms = terms(title, content);
+        apply(segment -> segment.put(id, terms));
+    }
+
+    public void remove(long id) {
+        apply(segment -> segment.remove(id));
+    }
+
+    /** Ids of posts containing every term of the query, newest first, at most {@code limit}. */
+    public List<Long> search(String query, int limit) {
+        String[] terms = terms(query);
+        if (terms.length == 0) return List.of();
+        return read(segment -> segment.search(terms, limit));
+    }
+
+    /**
+     * Replace the index with one built from {@code scan} (called with a sink for each post).
+     * Writes applied meanwhile are replayed afterwards, so the result is never older than the scan.
+     */
+    public void rebuild(Consumer<Consumer<Post>> scan) {
+        synchronized (rebuildMonitor) {
+            Queue<Consumer<Segment>> pending = new ConcurrentLinkedQueue<>();
+            pendingDuringRebuild = pending;
+            try {
+                Segment fresh = new Segment();
+                scan.accept(post -> fresh.put(post.getId(), terms(post.getTitle(), post.getContent())));
+
+                lock.writeLock().lock();
+                try {
+                    Consumer<Segment> change;
+                    while ((change = pending.poll()) != null) change.accept(fresh);
+                    fresh.trim();
+                    live = fresh;
+                    pendingDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                pendingDuringRebuild = null;
+            }
+        }
+    }
+
+    private void apply(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(live);
+            Queue<Consumer<Segment>> pending = pendingDuringRebuild;
+            if (pending != null) pending.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T read(Function<Segment, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(live);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Lower-cased, de-duplicated terms of the given texts (letters and digits only). */
+    static String[] terms(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) continue;
+            for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+                if (token.length() >= MIN_TERM_LENGTH && token.length() <= MAX_TERM_LENGTH) terms.add(token);
+            }
+        }
+        return terms.toArray(String[]::new);
+    }
+
+    /** One generation of the index; guarded by the outer lock (or private to a rebuild). */
+    private static final class Segment {
+        final Map<String, PostingList> postings = new HashMap<>();
+        final Map<Long, String[]> docs = new HashMap<>();
+
+        void put(long id, String[] terms) {
+            remove(id);
+            String[] interned = new String[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                PostingList list = postings.computeIfAbsent(terms[i], PostingList::new);
+                list.add(id);
+                // the dictionary's copy of the term, so docs doesn't hold a second string per posting
+                interned[i] = list.term();
+            }
+            docs.put(id, interned);
+        }
+
+        void remove(long id) {
+            String[] old = docs.remove(id);
+            if (old == null) return;
+            for (String term : old) {
+                PostingList list = postings.get(term);
+                if (list != null && list.remove(id) && list.size() == 0) postings.remove(term);
+            }
+        }
+
+        List<Long> search(String[] terms, int limit) {
+            PostingList[] lists = new PostingList[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                lists[i] = postings.get(terms[i]);
+                if (lists[i] == null) return List.of();
+            }
+            // intersect starting from the rarest term
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+            long[] hits = lists[0].toArray();
+            int count = hits.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = intersect(hits, count, lists[i].toArray());
+            }
+            List<Long> result = new ArrayList<>(Math.min(count, limit));
+            for (int i = count - 1; i >= 0 && result.size() < limit; i--) result.add(hits[i]);
+            return result;
+        }
+
+        long postingBytes() {
+            long total = 0;
+            for (PostingList list : postings.values()) total += list.bytes();
+            return total;
+        }
+
+        void trim() {
+            postings.values().forEach(PostingList::trim);
+        }
+
+        /** Keeps in {@code a[0..count)} only ids also in sorted {@code b}; returns the new count. */
+        private static int intersect(long[] a, int count, long[] b) {
+            int i = 0, j = 0, out = 0;
+            while (i < count && j < b.length) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else { a[out++] = a[i]; i++; j++; }
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted post ids for one term, stored as varint-encoded gaps in a byte array (ids from the
+ * pooled sequence are mostly ascending, so a gap usually fits in one or two bytes).
+ * Appending a larger id is O(1); anything else re-encodes the list. Not thread-safe.
+ */
+final class PostingList {
+    private final String term;
+    private byte[] data = new byte[4];
+    private int length;
+    private int size;
+    private long last;
+
+    PostingList(String term) {
+        this.term = term;
+    }
+
+    String term() { return term; }
+
+    int size() { return size; }
+
+    int bytes() { return data.length; }
+
+    /** Adds the id; returns false if it was already present. */
+    boolean add(long id) {
+        if (size == 0 || id > last) {
+            writeVarint(size == 0 ? id : id - last);
+            last = id;
+            size++;
+            return true;
+        }
+        long[] ids = toArray();
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0) return false;
+        int insert = -at - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insert);
+        grown[insert] = id;
+        System.arraycopy(ids, insert, grown, insert + 1, ids.length - insert);
+        encode(grown);
+        return true;
+    }
+
+    /** Removes the id; returns false if it wasn't present. */
+    boolean remove(long id) {
+        if (size == 0 || id > last) return false;
+        long[] ids = toArray();
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) return false;
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, at);
+        System.arraycopy(ids, at + 1, shrunk, at, ids.length - at - 1);
+        encode(shrunk);
+        return true;
+    }
+
+    long[] toArray() {
+        long[] ids = new long[size];
+        long value = 0;
+        int pos = 0;
+        for (int i = 0; i < size; i++) {
+            long gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                gap |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += gap;
+            ids[i] = value;
+        }
+        return ids;
+    }
+
+    /** Drops unused capacity once a bulk build is done. */
+    void trim() {
+        if (data.length > length) data = Arrays.copyOf(data, Math.max(length, 1));
+    }
+
+    private void encode(long[] ids) {
+        data = new byte[Math.max(4, ids.length * 2)];
+        length = 0;
+        size = 0;
+        for (long id : ids) {
+            writeVarint(size == 0 ? id : id - last);
+            last = id;
+            size++;
+        }
+    }
+
+    private void writeVarint(long value) {
+        if (length + 10 > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.api.dto.BulkChunkResult;
+import com.example.demo.api.dto.BulkPostItem;
+import com.example.demo.api.dto.BulkResult;
+import com.example.demo.config.DbConstraints;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a JSON array or NDJSON body of posts into the database in fixed-size chunks.
+ * Each chunk is one transaction whose INSERTs go out as JDBC batches (hibernate.jdbc.batch_size
+ * plus the pooled posts_seq generator); only the current chunk is held in memory.
+ */
+@Service
+public class PostIngestService {
+    private static final Logger log = LoggerFactory.getLogger(PostIngestService.class);
+
+    private final ObjectReader itemReader;
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public PostIngestService(ObjectMapper mapper,
+                             EntityManager em,
+                             PlatformTransactionManager txManager,
+                             Validator validator,
+                             @Value("${app.posts.bulk.chunk-size:500}") int chunkSize) {
+        this.itemReader = mapper.readerFor(BulkPostItem.class);
+        this.em = em;
+        this.tx = new TransactionTemplate(txManager);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkResult ingest(InputStream body) throws IOException {
+        List<BulkChunkResult> results = new ArrayList<>();
+        List<BulkPostItem> chunk = new ArrayList<>(chunkSize);
+
+        // readValues() accepts both a root-level sequence (NDJSON) and a wrapped JSON array
+        try (MappingIterator<BulkPostItem> items = itemReader.readValues(body)) {
+            while (items.hasNextValue()) {
+                chunk.add(items.nextValue());
+                if (chunk.size() == chunkSize) {
+                    results.add(persistChunk(results.size(), chunk));
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // earlier chunks are committed; report where the input broke instead of failing the whole call
+            results.add(new BulkChunkResult(results.size(), chunk.size(), 0, chunk.size(),
+                    "Malformed input: " + e.getOriginalMessage()));
+            return BulkResult.of(results);
+        }
+
+        if (!chunk.isEmpty()) {
+            results.add(persistChunk(results.size(), chunk));
+        }
+        return BulkResult.of(results);
+    }
+
+    private BulkChunkResult persistChunk(int index, List<BulkPostItem> items) {
+        List<BulkPostItem> valid = items.stream().filter(this::isValid).toList();
+        int rejected = items.size() - valid.size();
+
+        try {
+            tx.executeWithoutResult(status -> {
+                for (BulkPostItem item : valid) {
+                    Post post = Post.builder()
+                            .title(item.title())
+                            .content(item.content())
+                            .user(em.getReference(User.class, item.userId()))
+                            .build();
+                    em.persist(post);
+                }
+                em.flush();
+                // keep the persistence context from growing across chunks
+                em.clear();
+            });
+            return new BulkChunkResult(index, items.size(), valid.size(), rejected, null);
+        } catch (PersistenceException | DataAccessException | TransactionException e) {
+            log.warn("Bulk post chunk {} rolled back", index, e);
+            return new BulkChunkResult(index, items.size(), 0, items.size(), reason(e));
+        }
+    }
+
+    private static String reason(Exception e) {
+        return DbConstraints.violates(e, "fk_post_user") ? "User not found" : "Constraint violation";
+    }
+
+    private boolean isValid(BulkPostItem item) {
+        if (item == null || item.userId() == null) return false;
+        Post candidate = Post.builder().title(item.title()).content(item.content()).build();
+        return validator.validateProperty(candidate, "title").isEmpty()
+                && validator.validateProperty(candidate, "content").isEmpty();
+    }
+}
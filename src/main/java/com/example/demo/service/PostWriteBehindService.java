@@ -0,0 +1,368 @@
+package com.example.demo.service;
+
+import com.example.demo.api.dto.BulkPostItem;
+import com.example.demo.api.dto.PendingPost;
+import com.example.demo.config.DbConstraints;
+import com.example.demo.controller.JsonResponseCache;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Opt-in write-behind for single post creation: the request appends the post to a local
+ * {@link PostWriteLog} and gets a ticket back, a background writer inserts the log into the
+ * database in batches.
+ * <p>
+ * The writer stores its log position (post_write_checkpoint) and each ticket's outcome
+ * (post_write_ticket) in the same transaction as the posts, so after a crash it resumes at the
+ * checkpoint and nothing is inserted twice. The log directory is bound to the database's epoch
+ * (post_write_checkpoint.epoch): a log left over from another database, e.g. an in-memory one
+ * from a previous run, fails startup instead of being replayed. A batch that fails is retried one post at a time;
+ * a post that still fails for a reason retrying can't fix (constraint violation such as an unknown
+ * user, unreadable or invalid record) is recorded as FAILED and skipped. Any other failure (lock
+ * or pool timeout, database unavailable) makes the writer back off and retry from the checkpoint.
+ * If the writer thread dies on an {@link Error}, {@link #isAvailable()} turns false and callers
+ * write synchronously instead of handing out tickets nobody will process.
+ * <p>
+ * Callers see a ticket handle, {@code <ticket>.<mac>}: the MAC covers the ticket number and the
+ * submitting user under post_write_checkpoint.ticket_key, so a status is only returned to whoever
+ * submitted the post and handles can't be guessed from the sequential numbers. A FAILED status
+ * carries a fixed reason; the exception goes to the log.
+ * <p>
+ * Metrics: {@code posts.write_behind.backlog} (gauge, tickets not yet written),
+ * {@code posts.write_behind.writer.alive} (gauge, 1 while the writer runs) and
+ * {@code posts.write_behind.flush} (timer per committed batch).
+ */
+@Service
+public class PostWriteBehindService {
+    private static final Logger logger = LoggerFactory.getLogger(PostWriteBehindService.class);
+    private static final int MAC_LENGTH = 16;
+    private static final Base64.Encoder MAC_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    // EntityManager calls outside a @Repository proxy throw untranslated Hibernate exceptions
+    private static final HibernateJpaDialect JPA_DIALECT = new HibernateJpaDialect();
+
+    private final ObjectMapper mapper;
+    private final ObjectReader itemReader;
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final JdbcTemplate jdbc;
+    private final JsonResponseCache responses;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long idleNanos;
+    private final PostWriteLog log;
+    private final Timer flushTimer;
+    private SecretKeySpec ticketKey;
+
+    // writer thread state
+    private PostWriteLog.Position checkpoint;
+    private volatile long lastWrittenTicket;
+    private volatile boolean running;
+    private volatile boolean writerAlive;
+    private Thread writer;
+
+    public PostWriteBehindService(ObjectMapper mapper,
+                                  EntityManager em,
+                                  PlatformTransactionManager txManager,
+                                  JdbcTemplate jdbc,
+                                  JsonResponseCache responses,
+                                  MeterRegistry registry,
+                                  @Value("${app.posts.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${app.posts.write-behind.dir:./data/post-log}") Path dir,
+                                  @Value("${app.posts.write-behind.segment-size:16MB}") DataSize segmentSize,
+                                  @Value("${app.posts.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${app.posts.write-behind.flush-interval:PT0.05S}") Duration flushInterval,
+                                  @Value("${app.posts.write-behind.fsync:false}") boolean fsync) {
+        this.mapper = mapper;
+        this.itemReader = mapper.readerFor(BulkPostItem.class);
+        this.em = em;
+        this.tx = new TransactionTemplate(txManager);
+        this.jdbc = jdbc;
+        this.responses = responses;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.idleNanos = flushInterval.toNanos();
+        this.log = new PostWriteLog(dir, (int) segmentSize.toBytes(), fsync);
+        this.flushTimer = Timer.builder("posts.write_behind.flush").register(registry);
+        Gauge.builder("posts.write_behind.backlog", this, s -> s.enabled ? s.log.lastTicket() - s.lastWrittenTicket : 0)
+                .register(registry);
+        Gauge.builder("posts.write_behind.writer.alive", this, s -> s.writerAlive ? 1 : 0)
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        jdbc.update("update post_write_checkpoint set epoch = ? where id = 1 and epoch is null", UUID.randomUUID().toString());
+        log.bind(jdbc.queryForObject("select epoch from post_write_checkpoint where id = 1", String.class));
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        jdbc.update("update post_write_checkpoint set ticket_key = ? where id = 1 and ticket_key is null",
+                Base64.getEncoder().encodeToString(key));
+        ticketKey = new SecretKeySpec(Base64.getDecoder().decode(
+                jdbc.queryForObject("select ticket_key from post_write_checkpoint where id = 1", String.class)), "HmacSHA256");
+        checkpoint = jdbc.queryForObject("select segment, position from post_write_checkpoint where id = 1",
+                (rs, i) -> new PostWriteLog.Position(rs.getLong(1), rs.getInt(2)));
+        log.open(checkpoint);
+        Long written = jdbc.queryForObject("select coalesce(max(ticket), 0) from post_write_ticket", Long.class);
+        lastWrittenTicket = written == null ? 0 : written;
+        log.advanceTicketsTo(lastWrittenTicket);
+
+        running = true;
+        writerAlive = true;
+        writer = new Thread(this::run, "post-write-behind");
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!enabled) return;
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        log.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Enabled and the writer thread is running, so a ticket handed out now will be processed. */
+    public boolean isAvailable() {
+        return enabled && writerAlive;
+    }
+
+    /** Durably accept a post for later insertion; returns the ticket handle for {@code submitter}. */
+    public String submit(Long userId, String title, String content, String submitter) {
+        if (!isAvailable()) throw new IllegalStateException("Write-behind is not available");
+        byte[] payload;
+        try {
+            payload = mapper.writeValueAsBytes(new BulkPostItem(userId, title, content));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+        long ticket = log.append(payload);
+        LockSupport.unpark(writer);
+        return handle(ticket, submitter);
+    }
+
+    /** Status of a ticket handle, empty if it is unknown, malformed or was issued to someone else. */
+    public Optional<PendingPost> status(String handle, String caller) {
+        if (!enabled) return Optional.empty();
+        int dot = handle.indexOf('.');
+        long ticket;
+        try {
+            ticket = dot > 0 ? Long.parseLong(handle.substring(0, dot)) : -1;
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        if (ticket <= 0 || !MessageDigest.isEqual(
+                handle.getBytes(StandardCharsets.UTF_8), handle(ticket, caller).getBytes(StandardCharsets.UTF_8))) {
+            return Optional.empty();
+        }
+        List<PendingPost> done = jdbc.query("select post_id, error from post_write_ticket where ticket = ?",
+                (rs, i) -> {
+                    long postId = rs.getLong(1);
+                    return rs.wasNull()
+                            ? new PendingPost(handle, PendingPost.Status.FAILED, null, rs.getString(2))
+                            : new PendingPost(handle, PendingPost.Status.DONE, postId, null);
+                }, ticket);
+        if (!done.isEmpty()) return Optional.of(done.get(0));
+        if (ticket <= log.lastTicket()) return Optional.of(PendingPost.pending(handle));
+        return Optional.empty();
+    }
+
+    private String handle(long ticket, String submitter) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(ticketKey);
+            mac.update((ticket + ":" + submitter).getBytes(StandardCharsets.UTF_8));
+            return ticket + "." + MAC_ENCODER.encodeToString(Arrays.copyOf(mac.doFinal(), MAC_LENGTH));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                List<PostWriteLog.Entry> batch = log.read(checkpoint, batchSize);
+                if (batch.isEmpty()) {
+                    LockSupport.parkNanos(idleNanos);
+                    continue;
+                }
+                try {
+                    long start = System.nanoTime();
+                    Set<Long> users = write(batch);
+                    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    log.deleteBefore(checkpoint.segment());
+                    evict(users);
+                } catch (RuntimeException e) {
+                    // database unavailable or busy: keep the log, retry from the checkpoint
+                    logger.warn("Write-behind batch at {} failed, retrying in 1s", checkpoint, e);
+                    LockSupport.parkNanos(Duration.ofSeconds(1).toNanos());
+                }
+            }
+        } catch (Throwable t) {
+            // accepted posts stay in the log and are written after a restart
+            logger.error("Write-behind writer stopped at {}; new posts are written synchronously", checkpoint, t);
+        } finally {
+            writerAlive = false;
+        }
+    }
+
+    /** Insert a batch in one transaction, falling back to one transaction per post. */
+    private Set<Long> write(List<PostWriteLog.Entry> batch) {
+        Set<Long> users = new HashSet<>();
+        try {
+            tx.executeWithoutResult(status -> {
+                List<Object[]> outcomes = new ArrayList<>(batch.size());
+                for (PostWriteLog.Entry entry : batch) {
+                    Post post = persist(entry);
+                    users.add(post.getUser().getId());
+                    outcomes.add(new Object[]{entry.ticket(), post.getId(), null, now()});
+                }
+                em.flush();
+                em.clear();
+                jdbc.batchUpdate("insert into post_write_ticket (ticket, post_id, error, completed_at) values (?, ?, ?, ?)",
+                        outcomes);
+                saveCheckpoint(batch.get(batch.size() - 1).next());
+            });
+            advance(batch.get(batch.size() - 1));
+        } catch (PersistenceException | DataAccessException | TransactionException
+                 | ConstraintViolationException | IllegalArgumentException e) {
+            users.clear();
+            for (PostWriteLog.Entry entry : batch) {
+                writeOne(entry).ifPresent(users::add);
+            }
+        }
+        return users;
+    }
+
+    private Optional<Long> writeOne(PostWriteLog.Entry entry) {
+        try {
+            Long userId = tx.execute(status -> {
+                Post post = persist(entry);
+                em.flush();
+                em.clear();
+                recordTicket(entry.ticket(), post.getId(), null);
+                saveCheckpoint(entry.next());
+                return post.getUser().getId();
+            });
+            advance(entry);
+            return Optional.ofNullable(userId);
+        } catch (RuntimeException e) {
+            RuntimeException failure = translate(e);
+            if (!isPermanent(failure)) throw failure; // run() backs off and retries from the checkpoint
+            String reason = reason(failure);
+            logger.warn("Write-behind ticket {} failed: {}", entry.ticket(), reason, failure);
+            tx.executeWithoutResult(status -> {
+                recordTicket(entry.ticket(), null, reason);
+                saveCheckpoint(entry.next());
+            });
+            advance(entry);
+            return Optional.empty();
+        }
+    }
+
+    private Post persist(PostWriteLog.Entry entry) {
+        BulkPostItem item;
+        try {
+            item = itemReader.readValue(entry.payload());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable log record " + entry.ticket(), e);
+        }
+        Post post = Post.builder()
+                .title(item.title())
+                .content(item.content())
+                .user(em.getReference(User.class, item.userId()))
+                .build();
+        em.persist(post);
+        return post;
+    }
+
+    private void recordTicket(long ticket, Long postId, String error) {
+        jdbc.update("insert into post_write_ticket (ticket, post_id, error, completed_at) values (?, ?, ?, ?)",
+                ticket, postId, error, now());
+    }
+
+    private void saveCheckpoint(PostWriteLog.Position next) {
+        jdbc.update("update post_write_checkpoint set segment = ?, position = ? where id = 1",
+                next.segment(), next.offset());
+    }
+
+    private void advance(PostWriteLog.Entry entry) {
+        checkpoint = entry.next();
+        lastWrittenTicket = entry.ticket();
+    }
+
+    private void evict(Set<Long> users) {
+        if (users.isEmpty()) return;
+        List<String> prefixes = new ArrayList<>(List.of(JsonResponseCache.POSTS, JsonResponseCache.USERS));
+        for (Long id : users) {
+            prefixes.add(JsonResponseCache.postsByUser(id));
+            prefixes.add(JsonResponseCache.user(id));
+        }
+        responses.evict(prefixes.toArray(String[]::new));
+    }
+
+    private static RuntimeException translate(RuntimeException e) {
+        if (!(e instanceof PersistenceException)) return e;
+        DataAccessException translated = JPA_DIALECT.translateExceptionIfPossible(e);
+        return translated != null ? translated : e;
+    }
+
+    /** The post itself is bad (constraint violation, unreadable or invalid record): retrying won't help. */
+    private static boolean isPermanent(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException
+                || e instanceof ConstraintViolationException
+                || e instanceof IllegalArgumentException;
+    }
+
+    private static String reason(Exception e) {
+        if (DbConstraints.violates(e, "fk_post_user")) return "User not found";
+        if (e instanceof IllegalArgumentException && e.getCause() instanceof IOException) return "Unreadable record";
+        return "Invalid post";
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
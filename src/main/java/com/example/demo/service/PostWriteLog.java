@@ -0,0 +1,251 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of accepted-but-not-yet-written posts, stored in fixed-size memory-mapped
+ * segment files ({@code 00000000000000000001.log}, ...).
+ * <p>
+ * Record layout: {@code int length | int crc32c | long ticket | payload}. A zero length marks the
+ * end of written data (segments are zero-filled when created); {@link #ROLL} means "continued in
+ * the next segment". On {@link #open} the log is scanned from the last checkpoint: the first
+ * record that is torn (bad length or checksum) becomes the new tail and the rest of that segment
+ * is zeroed, so a crash mid-append loses at most the record being written.
+ * <p>
+ * The directory is tied to one database by an {@code epoch} file (see {@link #bind}), so a log
+ * is never replayed into a database whose checkpoint doesn't describe it.
+ * <p>
+ * Appends are serialized; readers only see records up to the last published position.
+ * Writes survive a process crash once appended (they are in the OS page cache); with
+ * {@code fsync} each append is also forced to disk.
+ */
+final class PostWriteLog implements AutoCloseable {
+    static final int HEADER = 4 + 4 + 8;
+    private static final String EPOCH_FILE = "epoch";
+    private static final int ROLL = -1;
+
+    /** Position in the log: segment number and byte offset within it. */
+    record Position(long segment, int offset) {
+        static final Position START = new Position(1, 0);
+    }
+
+    record Entry(long ticket, byte[] payload, Position next) { }
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final Map<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+
+    // appender state, guarded by "this"
+    private MappedByteBuffer tailBuffer;
+    private Position tail;
+    private long lastTicket;
+
+    private volatile Position published;
+
+    PostWriteLog(Path dir, int segmentBytes, boolean fsync) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Claim the directory for the database identified by {@code epoch}. An empty directory is
+     * claimed; one that was claimed by another database, or holds segments of unknown origin,
+     * is refused: its records and the database's checkpoint and tickets don't belong together.
+     */
+    synchronized void bind(String epoch) {
+        Path file = dir.resolve(EPOCH_FILE);
+        try {
+            Files.createDirectories(dir);
+            if (Files.exists(file)) {
+                String owner = Files.readString(file).trim();
+                if (!owner.equals(epoch)) {
+                    throw new IllegalStateException("Post log in " + dir + " belongs to database epoch " + owner
+                            + ", this database is " + epoch + "; move the directory away or use another one");
+                }
+                return;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                if (files.anyMatch(f -> segmentNumber(f) != null)) {
+                    throw new IllegalStateException("Post log in " + dir + " has segments but no " + EPOCH_FILE
+                            + " file; move the directory away or use another one");
+                }
+            }
+            Files.writeString(file, epoch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Recover the tail by scanning forward from {@code from} (the consumer's checkpoint).
+     * Returns the highest ticket found in the log, or 0 when it holds no unconsumed records.
+     */
+    synchronized long open(Position from) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Position at = from;
+        long maxTicket = 0;
+        while (true) {
+            MappedByteBuffer buf = segment(at.segment());
+            int length = at.offset() + 4 <= segmentBytes ? buf.getInt(at.offset()) : ROLL;
+            if (length == ROLL && Files.exists(file(at.segment() + 1))) {
+                at = new Position(at.segment() + 1, 0);
+                continue;
+            }
+            if (length <= 0 || !intact(buf, at.offset(), length)) {
+                zeroFrom(buf, at.offset());
+                break;
+            }
+            maxTicket = Math.max(maxTicket, buf.getLong(at.offset() + 8));
+            at = new Position(at.segment(), at.offset() + HEADER + length);
+        }
+        tail = at;
+        tailBuffer = segment(at.segment());
+        lastTicket = maxTicket;
+        published = tail;
+        return maxTicket;
+    }
+
+    /** Make sure tickets keep increasing across restarts even when the log was fully consumed. */
+    synchronized void advanceTicketsTo(long ticket) {
+        lastTicket = Math.max(lastTicket, ticket);
+    }
+
+    synchronized long lastTicket() {
+        return lastTicket;
+    }
+
+    /** Append one payload; returns its ticket. */
+    synchronized long append(byte[] payload) {
+        int size = HEADER + payload.length;
+        if (size > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + size + " bytes exceeds the segment size");
+        }
+        if (tail.offset() + size > segmentBytes) {
+            if (tail.offset() + 4 <= segmentBytes) tailBuffer.putInt(tail.offset(), ROLL);
+            tail = new Position(tail.segment() + 1, 0);
+            tailBuffer = segment(tail.segment());
+        }
+
+        long ticket = ++lastTicket;
+        int at = tail.offset();
+        // payload and ticket first, length last: a reader never sees a length without its bytes
+        tailBuffer.put(at + HEADER, payload);
+        tailBuffer.putLong(at + 8, ticket);
+        tailBuffer.putInt(at + 4, crc(ticket, payload));
+        tailBuffer.putInt(at, payload.length);
+        if (fsync) tailBuffer.force(at, size);
+
+        tail = new Position(tail.segment(), at + size);
+        published = tail;
+        return ticket;
+    }
+
+    /** Up to {@code max} records starting at {@code from}, never beyond the published tail. */
+    List<Entry> read(Position from, int max) {
+        Position end = published;
+        List<Entry> entries = new ArrayList<>();
+        Position at = from;
+        while (entries.size() < max && (at.segment() < end.segment()
+                || (at.segment() == end.segment() && at.offset() < end.offset()))) {
+            MappedByteBuffer buf = segment(at.segment());
+            int length = at.offset() + 4 <= segmentBytes ? buf.getInt(at.offset()) : ROLL;
+            if (length == ROLL) {
+                at = new Position(at.segment() + 1, 0);
+                continue;
+            }
+            int start = at.offset();
+            byte[] payload = new byte[length];
+            buf.get(start + HEADER, payload);
+            at = new Position(at.segment(), start + HEADER + length);
+            entries.add(new Entry(buf.getLong(start + 8), payload, at));
+        }
+        return entries;
+    }
+
+    /** Delete segments that lie entirely before {@code segment} (already consumed). */
+    void deleteBefore(long segment) {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : files.toList()) {
+                Long n = segmentNumber(f);
+                if (n != null && n < segment) {
+                    segments.remove(n);
+                    Files.deleteIfExists(f);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.values().forEach(MappedByteBuffer::force);
+        segments.clear();
+    }
+
+    private MappedByteBuffer segment(long n) {
+        return segments.computeIfAbsent(n, k -> {
+            try (FileChannel ch = FileChannel.open(file(k), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // a new file is extended with zeros, which read as "end of data"
+                return ch.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private boolean intact(ByteBuffer buf, int offset, int length) {
+        if (offset + HEADER + length > segmentBytes) return false;
+        byte[] payload = new byte[length];
+        buf.get(offset + HEADER, payload);
+        return buf.getInt(offset + 4) == crc(buf.getLong(offset + 8), payload);
+    }
+
+    private void zeroFrom(MappedByteBuffer buf, int offset) {
+        for (int i = offset; i < segmentBytes; i++) {
+            if (buf.get(i) != 0) buf.put(i, (byte) 0);
+        }
+        buf.force();
+    }
+
+    private static int crc(long ticket, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(8).putLong(0, ticket));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private Path file(long segment) {
+        return dir.resolve("%020d.log".formatted(segment));
+    }
+
+    private static Long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(".log")) return null;
+        try {
+            return Long.parseLong(name.substring(0, name.length() - 4));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
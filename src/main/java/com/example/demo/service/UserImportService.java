@@ -0,0 +1,188 @@
+package com.example.demo.service;
+
+import com.example.demo.api.dto.BulkChunkResult;
+import com.example.demo.api.dto.BulkResult;
+import com.example.demo.api.dto.BulkUserItem;
+import com.example.demo.config.DbConstraints;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Streams a JSON array or NDJSON body of users into the database.
+ * <p>
+ * Two-stage pipeline per chunk: while the passwords of chunk N are hashed on a dedicated,
+ * bounded pool, the request thread parses chunk N+1, de-duplicates it (in memory and with one
+ * {@code email in (...)} query against uk_user_email) and then inserts chunk N as JDBC batches.
+ * The pool's queue is bounded and overflow runs on the caller, which throttles parsing.
+ */
+@Service
+public class UserImportService {
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private final ObjectReader itemReader;
+    private final UserRepository users;
+    private final PasswordEncoder encoder;
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final Validator validator;
+    private final int chunkSize;
+    private final ThreadPoolExecutor hashPool;
+
+    public UserImportService(ObjectMapper mapper,
+                             UserRepository users,
+                             PasswordEncoder encoder,
+                             EntityManager em,
+                             PlatformTransactionManager txManager,
+                             Validator validator,
+                             @Value("${app.users.import.chunk-size:500}") int chunkSize,
+                             @Value("${app.users.import.hash-threads:0}") int hashThreads,
+                             @Value("${app.users.import.hash-queue:1000}") int hashQueue) {
+        this.itemReader = mapper.readerFor(BulkUserItem.class);
+        this.users = users;
+        this.encoder = encoder;
+        this.em = em;
+        this.tx = new TransactionTemplate(txManager);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        this.hashPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashQueue),
+                new CustomizableThreadFactory("user-import-hash-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    public BulkResult importUsers(InputStream body) throws IOException {
+        List<BulkChunkResult> results = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        List<BulkUserItem> chunk = new ArrayList<>(chunkSize);
+        HashingChunk inFlight = null;
+        int index = 0;
+
+        try (MappingIterator<BulkUserItem> items = itemReader.readValues(body)) {
+            while (items.hasNextValue()) {
+                chunk.add(items.nextValue());
+                if (chunk.size() == chunkSize) {
+                    HashingChunk next = startHashing(index++, chunk, seen);
+                    if (inFlight != null) results.add(insert(inFlight));
+                    inFlight = next;
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            if (inFlight != null) results.add(insert(inFlight));
+            results.add(new BulkChunkResult(index, chunk.size(), 0, chunk.size(),
+                    "Malformed input: " + e.getOriginalMessage()));
+            return BulkResult.of(results);
+        }
+
+        if (!chunk.isEmpty()) {
+            HashingChunk last = startHashing(index, chunk, seen);
+            if (inFlight != null) results.add(insert(inFlight));
+            inFlight = last;
+        }
+        if (inFlight != null) results.add(insert(inFlight));
+        return BulkResult.of(results);
+    }
+
+    /** Validate and de-duplicate a chunk, then hand its passwords to the hash pool. */
+    private HashingChunk startHashing(int index, List<BulkUserItem> chunk, Set<String> seen) {
+        List<BulkUserItem> candidates = new ArrayList<>(chunk.size());
+        for (BulkUserItem item : chunk) {
+            if (isValid(item) && seen.add(item.email())) {
+                candidates.add(item);
+            }
+        }
+        if (!candidates.isEmpty()) {
+            Set<String> taken = users.findExistingEmails(candidates.stream().map(BulkUserItem::email).toList());
+            if (!taken.isEmpty()) {
+                candidates.removeIf(item -> taken.contains(item.email()));
+            }
+        }
+
+        List<Future<String>> hashes = new ArrayList<>(candidates.size());
+        for (BulkUserItem item : candidates) {
+            hashes.add(hashPool.submit(() -> encoder.encode(item.password())));
+        }
+        return new HashingChunk(index, chunk.size(), candidates, hashes);
+    }
+
+    /** Wait for a chunk's hashes and insert it in one transaction. */
+    private BulkChunkResult insert(HashingChunk chunk) {
+        int skipped = chunk.received() - chunk.accepted().size();
+        try {
+            List<User> batch = new ArrayList<>(chunk.accepted().size());
+            for (int i = 0; i < chunk.accepted().size(); i++) {
+                BulkUserItem item = chunk.accepted().get(i);
+                batch.add(User.builder()
+                        .email(item.email())
+                        .password(chunk.hashes().get(i).get())
+                        .firstName(item.firstName())
+                        .lastName(item.lastName())
+                        .build());
+            }
+            tx.executeWithoutResult(status -> {
+                batch.forEach(em::persist);
+                em.flush();
+                em.clear();
+            });
+            return new BulkChunkResult(chunk.index(), chunk.received(), batch.size(), skipped, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(chunk, "Interrupted while hashing");
+        } catch (ExecutionException e) {
+            log.warn("User import chunk {}: hashing failed", chunk.index(), e.getCause());
+            return failed(chunk, "Hashing failed");
+        } catch (PersistenceException | DataAccessException | TransactionException e) {
+            log.warn("User import chunk {} rolled back", chunk.index(), e);
+            return failed(chunk, reason(e));
+        }
+    }
+
+    private static String reason(Exception e) {
+        // an email taken between the existence check and the insert
+        return DbConstraints.violates(e, "uk_user_email") ? "Email already in use" : "Constraint violation";
+    }
+
+    private static BulkChunkResult failed(HashingChunk chunk, String reason) {
+        chunk.hashes().forEach(f -> f.cancel(false));
+        return new BulkChunkResult(chunk.index(), chunk.received(), 0, chunk.received(), reason);
+    }
+
+    private boolean isValid(BulkUserItem item) {
+        if (item == null) return false;
+        User candidate = User.builder().email(item.email()).password(item.password()).build();
+        return validator.validateProperty(candidate, "email").isEmpty()
+                && validator.validateProperty(candidate, "password").isEmpty();
+    }
+
+    private record HashingChunk(int index, int received, List<BulkUserItem> accepted, List<Future<String>> hashes) { }
+}
@@ -0,0 +1,35 @@
+-- Baseline schema (previously generated by ddl-auto=update), plus the indexes the queries rely on.
+
+-- increment = allocationSize of the entities' pooled sequence generators
+create sequence users_seq start with 1 increment by 50;
+create sequence posts_seq start with 1 increment by 50;
+
+create table users (
+    id         bigint       not null,
+    first_name varchar(50),
+    last_name  varchar(50),
+    email      varchar(100) not null,
+    password   varchar(255) not null,
+    updated_at timestamp(6) not null,
+    constraint pk_users primary key (id),
+    constraint uk_user_email unique (email)
+);
+
+create table posts (
+    id         bigint       not null,
+    title      varchar(255) not null,
+    content    clob         not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    user_id    bigint       not null,
+    constraint pk_posts primary key (id),
+    constraint fk_post_user foreign key (user_id) references users (id)
+);
+
+-- posts of a user (GET /api/posts/user/{id}, ?include=posts, version stamps)
+create index idx_post_user_id on posts (user_id);
+-- keyset pagination: order by created_at desc, id desc
+create index idx_post_created_at_id on posts (created_at, id);
+-- max(updated_at) for conditional GETs
+create index idx_post_updated_at on posts (updated_at);
+create index idx_user_updated_at on users (updated_at);
@@ -0,0 +1,20 @@
+-- Write-behind post creation (PostWriteBehindService).
+
+-- How far the background writer has consumed the local log. Updated in the same transaction
+-- as the posts it wrote, so a replay after a crash never inserts a post twice.
+create table post_write_checkpoint (
+    id      int    not null,
+    segment bigint not null,
+    position int   not null,
+    constraint pk_post_write_checkpoint primary key (id)
+);
+insert into post_write_checkpoint (id, segment, position) values (1, 1, 0);
+
+-- Outcome per ticket, polled through GET /api/posts/pending/{ticket}.
+create table post_write_ticket (
+    ticket       bigint       not null,
+    post_id      bigint,
+    error        varchar(500),
+    completed_at timestamp(6) not null,
+    constraint pk_post_write_ticket primary key (ticket)
+);
@@ -0,0 +1,3 @@
+-- Optimistic-lock version of a user's profile (User.version). Tokens carry it as the "pv" claim;
+-- JwtAuthFilter rejects a token once the profile has moved past it.
+alter table users add column version bigint default 0 not null;
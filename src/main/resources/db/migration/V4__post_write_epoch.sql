@@ -0,0 +1,3 @@
+-- Identifies the database a write-behind log belongs to (PostWriteBehindService). Set on first
+-- use and copied into the log directory; a log from another database is never replayed.
+alter table post_write_checkpoint add column epoch varchar(36);
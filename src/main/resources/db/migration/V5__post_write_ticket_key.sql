@@ -0,0 +1,3 @@
+-- Key for the MAC in write-behind ticket handles (PostWriteBehindService). Set on first use;
+-- a handle only resolves for the user it was issued to, and ticket numbers can't be enumerated.
+alter table post_write_checkpoint add column ticket_key varchar(64);
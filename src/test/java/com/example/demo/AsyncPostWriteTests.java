@@ -0,0 +1,143 @@
+package com.example.demo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class AsyncPostWriteTests extends BaseIntegrationTest {
+
+    @DynamicPropertySource
+    static void writeBehind(DynamicPropertyRegistry registry) {
+        registry.add("app.posts.write-behind.enabled", () -> "true");
+        registry.add("app.posts.write-behind.dir", () -> {
+            try {
+                return Files.createTempDirectory("post-log").toString();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private final ObjectMapper om = new ObjectMapper();
+
+    @Test
+    void createPost_respond_async_202_then_done() throws Exception {
+        register("async@example.com", "secret123");
+        String token = loginAndGetToken("async@example.com", "secret123");
+        long userId = currentUserId(token);
+
+        String accepted = mockMvc.perform(post("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token))
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        { "title": "Later", "content": "written behind" }
+                        """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse().getContentAsString();
+        String ticket = om.readTree(accepted).get("ticket").asText();
+
+        JsonNode done = awaitCompletion(token, ticket);
+        mockMvc.perform(get("/api/posts/{id}", done.get("postId").asLong())
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Later"));
+    }
+
+    @Test
+    void createPost_respond_async_unknown_user_failed() throws Exception {
+        register("async-missing@example.com", "secret123");
+        String token = loginAndGetToken("async-missing@example.com", "secret123");
+
+        String accepted = mockMvc.perform(post("/api/posts/user/{id}", 999999)
+                        .header("Authorization", bearer(token))
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        { "title": "Orphan", "content": "nobody owns this" }
+                        """))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String ticket = om.readTree(accepted).get("ticket").asText();
+
+        JsonNode failed = awaitCompletion(token, ticket);
+        assertThat(failed.get("status").asText()).isEqualTo("FAILED");
+        assertThat(failed.get("error").asText()).isEqualTo("User not found");
+    }
+
+    @Test
+    void createPost_respond_async_blank_title_400() throws Exception {
+        register("async-blank@example.com", "secret123");
+        String token = loginAndGetToken("async-blank@example.com", "secret123");
+        long userId = currentUserId(token);
+
+        mockMvc.perform(post("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token))
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        { "title": "", "content": "x" }
+                        """))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/posts/pending/{ticket}", "987654321")
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void pending_ticket_resolves_only_for_its_submitter() throws Exception {
+        register("async-owner@example.com", "secret123");
+        String owner = loginAndGetToken("async-owner@example.com", "secret123");
+        register("async-other@example.com", "secret123");
+        String other = loginAndGetToken("async-other@example.com", "secret123");
+
+        String accepted = mockMvc.perform(post("/api/posts/user/{id}", currentUserId(owner))
+                        .header("Authorization", bearer(owner))
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        { "title": "Mine", "content": "not yours" }
+                        """))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String ticket = om.readTree(accepted).get("ticket").asText();
+        String number = ticket.substring(0, ticket.indexOf('.'));
+
+        assertThat(awaitCompletion(owner, ticket).get("status").asText()).isEqualTo("DONE");
+        mockMvc.perform(get("/api/posts/pending/{ticket}", ticket)
+                        .header("Authorization", bearer(other)))
+                .andExpect(status().isNotFound());
+        // the sequential number alone, or with a forged MAC, resolves for nobody
+        mockMvc.perform(get("/api/posts/pending/{ticket}", number)
+                        .header("Authorization", bearer(owner)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/posts/pending/{ticket}", number + ".AAAAAAAAAAAAAAAAAAAAAA")
+                        .header("Authorization", bearer(owner)))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode awaitCompletion(String token, String ticket) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String body = mockMvc.perform(get("/api/posts/pending/{ticket}", ticket)
+                            .header("Authorization", bearer(token)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode node = om.readTree(body);
+            if (!"PENDING".equals(node.get("status").asText())) return node;
+            Thread.sleep(50);
+        }
+        throw new AssertionError("ticket " + ticket + " still pending");
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.demo;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 class AuthControllerTests extends BaseIntegrationTest {
@@ -42,4 +49,127 @@ class AuthControllerTests extends BaseIntegrationTest {
                 """))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    void token_kid_is_published_in_jwks_200() throws Exception {
+        register("jwks@example.com", "secret123");
+        String token = loginAndGetToken("jwks@example.com", "secret123");
+
+        JsonNode jose = new ObjectMapper().readTree(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        String kid = jose.get("kid").asText();
+
+        // public, no token needed
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Cache-Control"))
+                .andExpect(jsonPath("$.keys[*].kid", hasItem(kid)))
+                .andExpect(jsonPath("$.keys[0].alg").value(jose.get("alg").asText()));
+    }
+
+    @Test
+    void refresh_issues_new_pair_and_old_refresh_token_is_single_use() throws Exception {
+        register("refresh@example.com", "secret123");
+        JsonNode login = login("refresh@example.com", "secret123");
+        String refreshToken = login.get("refreshToken").asText();
+
+        // a refresh token is not an access token
+        mockMvc.perform(get("/api/me").header("Authorization", bearer(refreshToken)))
+                .andExpect(status().isForbidden());
+
+        String body = mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"refreshToken":"%s"}
+                """.formatted(refreshToken)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andReturn().getResponse().getContentAsString();
+        String token = new ObjectMapper().readTree(body).get("token").asText();
+
+        mockMvc.perform(get("/api/me").header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("refresh@example.com"));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"refreshToken":"%s"}
+                """.formatted(refreshToken)))
+                .andExpect(status().isUnauthorized());
+
+        // an access token can't be used to refresh
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"refreshToken":"%s"}
+                """.formatted(token)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refresh_token_goes_stale_after_profile_update_401() throws Exception {
+        register("refresh-stale@example.com", "secret123");
+        JsonNode login = login("refresh-stale@example.com", "secret123");
+        String token = login.get("token").asText();
+        long id = currentUserId(token);
+
+        mockMvc.perform(put("/api/users/{id}", id)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"password":"changed123"}
+                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"refreshToken":"%s"}
+                """.formatted(login.get("refreshToken").asText())))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logout_revokes_access_and_refresh_tokens() throws Exception {
+        register("logout@example.com", "secret123");
+        JsonNode login = login("logout@example.com", "secret123");
+        String token = login.get("token").asText();
+        String refreshToken = login.get("refreshToken").asText();
+
+        mockMvc.perform(get("/api/me").header("Authorization", bearer(token)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"refreshToken":"%s"}
+                """.formatted(refreshToken)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/me").header("Authorization", bearer(token)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"refreshToken":"%s"}
+                """.formatted(refreshToken)))
+                .andExpect(status().isUnauthorized());
+
+        // without a token there is nothing to log out
+        mockMvc.perform(post("/auth/logout"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode login(String email, String password) throws Exception {
+        String body = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"email":"%s","password":"%s"}
+                """.formatted(email, password)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return new ObjectMapper().readTree(body);
+    }
 }
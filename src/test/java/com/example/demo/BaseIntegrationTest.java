@@ -8,12 +8,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+// every test registers and logs in from the same address; RateLimitTests turns the limiter back on.
+// No revocation snapshot: test contexts would all share ./data/revoked-tokens.bin
+@TestPropertySource(properties = {"app.ratelimit.enabled=false", "app.jwt.revocation.snapshot-file="})
 public abstract class BaseIntegrationTest {
 
     @Autowired protected MockMvc mockMvc;
@@ -47,5 +52,11 @@ public abstract class BaseIntegrationTest {
         return node.get("token").asText();
     }
 
+    protected long currentUserId(String token) throws Exception {
+        var res = mockMvc.perform(get("/api/me").header("Authorization", bearer(token)))
+                .andReturn();
+        return om.readTree(res.getResponse().getContentAsString()).get("id").asLong();
+    }
+
     protected String bearer(String token) { return "Bearer " + token; }
 }
@@ -5,7 +5,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.beans.factory.annotation.Autowired;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.jwt.revocation.snapshot-file=") // no shared ./data/revoked-tokens.bin
 @AutoConfigureMockMvc(addFilters = false) // ✅ disables Security filters
 public abstract class BaseMvcNoSecurityTest {
     @Autowired protected MockMvc mockMvc;
@@ -1,15 +1,28 @@
 package com.example.demo;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 class MeControllerTests extends BaseIntegrationTest {
 
+    @Autowired MeterRegistry registry;
+
     @Test
     void me_requires_auth_403() throws Exception {
-        mockMvc.perform(get("/api/me")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/me"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.status").value(403))
+                .andExpect(jsonPath("$.path").value("/api/me"));
     }
 
     @Test
@@ -21,4 +34,86 @@ class MeControllerTests extends BaseIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.email").value("eve@example.com"));
     }
+
+    @Test
+    void me_rejected_after_user_deleted_403() throws Exception {
+        register("gone@example.com", "secret123");
+        String token = loginAndGetToken("gone@example.com", "secret123");
+
+        // first call caches the principal
+        String body = mockMvc.perform(get("/api/me").header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = body.replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        mockMvc.perform(delete("/api/users/{id}", id).header("Authorization", bearer(token)))
+                .andExpect(status().isNoContent());
+
+        // deleting the user must evict the cached principal
+        mockMvc.perform(get("/api/me").header("Authorization", bearer(token)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void garbage_token_403_counted_as_malformed() throws Exception {
+        double before = registry.counter("auth.jwt.failures", "reason", "malformed").count();
+
+        mockMvc.perform(get("/api/me").header("Authorization", bearer("not-a-jwt")))
+                .andExpect(status().isForbidden());
+
+        assertThat(registry.counter("auth.jwt.failures", "reason", "malformed").count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void create_post_records_its_statements() throws Exception {
+        register("counted@example.com", "secret123");
+        String token = loginAndGetToken("counted@example.com", "secret123");
+        long id = currentUserId(token);
+        double countBefore = statements("POST", "/api/posts/user/{userId}").count();
+        double totalBefore = statements("POST", "/api/posts/user/{userId}").totalAmount();
+
+        mockMvc.perform(post("/api/posts/user/{userId}", id)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"title":"Counted","content":"one insert at least"}
+                """))
+                .andExpect(status().isOk());
+
+        // this one request, and at least its INSERT
+        assertThat(statements("POST", "/api/posts/user/{userId}").count()).isEqualTo(countBefore + 1);
+        assertThat(statements("POST", "/api/posts/user/{userId}").totalAmount()).isGreaterThanOrEqualTo(totalBefore + 1);
+    }
+
+    @Test
+    void token_goes_stale_after_profile_update_403() throws Exception {
+        register("stale@example.com", "secret123");
+        String token = loginAndGetToken("stale@example.com", "secret123");
+        long id = currentUserId(token);
+
+        mockMvc.perform(put("/api/users/{id}", id)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"firstName":"Renamed"}
+                """))
+                .andExpect(status().isOk());
+
+        // the old token still claims the previous profile version
+        mockMvc.perform(get("/api/me").header("Authorization", bearer(token)))
+                .andExpect(status().isForbidden());
+
+        String fresh = loginAndGetToken("stale@example.com", "secret123");
+        mockMvc.perform(get("/api/me").header("Authorization", bearer(fresh)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.firstName").value("Renamed"));
+    }
+
+    private DistributionSummary statements(String method, String uri) {
+        return DistributionSummary.builder("http.server.requests.queries")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry);
+    }
 }
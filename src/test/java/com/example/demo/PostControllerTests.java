@@ -2,11 +2,16 @@ package com.example.demo;
 
 import org.junit.jupiter.api.Test;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import org.springframework.http.MediaType;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
 
 class PostControllerTests extends BaseIntegrationTest {
 
@@ -43,12 +48,300 @@ class PostControllerTests extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.title").value("Hello World"))
                 .andExpect(jsonPath("$.content").value("My very first post!"));
 
-        // Fetch posts by Alice
+        // Fetch posts by Alice (list view carries an excerpt, not the full content)
         mockMvc.perform(get("/api/posts/user/1")
                         .header("Authorization", bearer(token)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title").value("Hello World"))
-                .andExpect(jsonPath("$[0].content").value("My very first post!"));
+                .andExpect(jsonPath("$[0].excerpt").value("My very first post!"))
+                .andExpect(jsonPath("$[0].content").doesNotExist());
+    }
+
+    @Test
+    void getPost_full_content_200_then_404() throws Exception {
+        register("single@example.com", "secret123");
+        String token = loginAndGetToken("single@example.com", "secret123");
+        long userId = currentUserId(token);
+        String longContent = "x".repeat(500);
+
+        String created = mockMvc.perform(post("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"title\": \"Long\", \"content\": \"" + longContent + "\" }"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String postId = created.replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        mockMvc.perform(get("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].excerpt").value("x".repeat(200)));
+
+        mockMvc.perform(get("/api/posts/{id}", postId)
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value(longContent));
+
+        mockMvc.perform(get("/api/posts/{id}", 999999)
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createPost_and_getPostsByUser_unknown_user_404() throws Exception {
+        register("nouser@example.com", "secret123");
+        String token = loginAndGetToken("nouser@example.com", "secret123");
+
+        mockMvc.perform(post("/api/posts/user/{id}", 999999)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        { "title": "Orphan", "content": "No such user" }
+                        """))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/posts/user/{id}", 999999)
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bulkCreate_ndjson_and_json_array_200() throws Exception {
+        register("bulk@example.com", "secret123");
+        String token = loginAndGetToken("bulk@example.com", "secret123");
+        long userId = currentUserId(token);
+
+        String ndjson = """
+                {"userId":%1$d,"title":"Bulk 1","content":"a"}
+                {"userId":%1$d,"title":"Bulk 2","content":"b"}
+                {"userId":%1$d,"title":"","content":"blank title is skipped"}
+                """.formatted(userId);
+        mockMvc.perform(post("/api/posts/bulk")
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.skipped").value(1));
+
+        mockMvc.perform(post("/api/posts/bulk")
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        [ {"userId":%d,"title":"Bulk 3","content":"c"} ]
+                        """.formatted(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.chunks[0].error").doesNotExist());
+    }
+
+    @Test
+    void bulkCreate_unknown_user_reports_fixed_reason_200() throws Exception {
+        register("bulk-fk@example.com", "secret123");
+        String token = loginAndGetToken("bulk-fk@example.com", "secret123");
+
+        mockMvc.perform(post("/api/posts/bulk")
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                        {"userId":987654321,"title":"Orphan","content":"x"}
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(0))
+                .andExpect(jsonPath("$.chunks[0].error").value("User not found"));
+    }
+
+    @Test
+    void getAllPosts_keyset_pages_200() throws Exception {
+        register("pager@example.com", "secret123");
+        String token = loginAndGetToken("pager@example.com", "secret123");
+        long userId = currentUserId(token);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/posts/user/{id}", userId)
+                            .header("Authorization", bearer(token))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                            { "title": "Page %d", "content": "body" }
+                            """.formatted(i)))
+                    .andExpect(status().isOk());
+        }
+
+        String first = mockMvc.perform(get("/api/posts").param("size", "2")
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("Page 2"))
+                .andExpect(jsonPath("$.next").exists())
+                .andReturn().getResponse().getContentAsString();
+        String next = first.replaceAll(".*\"next\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get("/api/posts").param("size", "2").param("cursor", next)
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Page 0"));
+    }
+
+    @Test
+    void getAllPosts_bad_cursor_400() throws Exception {
+        register("cursor@example.com", "secret123");
+        String token = loginAndGetToken("cursor@example.com", "secret123");
+
+        mockMvc.perform(get("/api/posts").param("cursor", "not-a-cursor")
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamAllPosts_ndjson_200() throws Exception {
+        register("stream@example.com", "secret123");
+        String token = loginAndGetToken("stream@example.com", "secret123");
+        long userId = currentUserId(token);
+
+        mockMvc.perform(post("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        { "title": "Streamed", "content": "one line per post" }
+                        """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/posts")
+                        .header("Authorization", bearer(token))
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"title\":\"Streamed\"")));
+    }
+
+    @Test
+    void searchPosts_matches_all_terms_200() throws Exception {
+        register("search@example.com", "secret123");
+        String token = loginAndGetToken("search@example.com", "secret123");
+        long userId = currentUserId(token);
+
+        mockMvc.perform(post("/api/posts/bulk")
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                        {"userId":%1$d,"title":"Quokka sighting","content":"Seen near the Marmalade river."}
+                        {"userId":%1$d,"title":"Another quokka","content":"No rivers here."}
+                        """.formatted(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2));
+
+        mockMvc.perform(get("/api/posts/search").param("q", "QUOKKA")
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(get("/api/posts/search").param("q", "quokka marmalade")
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Quokka sighting"));
+
+        mockMvc.perform(get("/api/posts/search").param("q", "quokka platypus")
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(get("/api/posts/search").param("q", " ")
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void conditionalGet_etag_304_until_changed() throws Exception {
+        register("etag@example.com", "secret123");
+        String token = loginAndGetToken("etag@example.com", "secret123");
+        long userId = currentUserId(token);
+
+        String created = mockMvc.perform(post("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        { "title": "Tagged", "content": "v1" }
+                        """))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String postId = created.replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        String postEtag = mockMvc.perform(get("/api/posts/{id}", postId)
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/posts/{id}", postId)
+                        .header("Authorization", bearer(token))
+                        .header("If-None-Match", postEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String listEtag = mockMvc.perform(get("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token))
+                        .header("If-None-Match", listEtag))
+                .andExpect(status().isNotModified());
+
+        // a new post changes the user's stamp, so the old tag no longer matches
+        mockMvc.perform(post("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        { "title": "Tagged 2", "content": "v2" }
+                        """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token))
+                        .header("If-None-Match", listEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void conditionalGet_list_ignores_ifModifiedSince_after_delete_200() throws Exception {
+        register("lm-old@example.com", "secret123");
+        String oldToken = loginAndGetToken("lm-old@example.com", "secret123");
+        long oldUser = currentUserId(oldToken);
+        register("lm-new@example.com", "secret123");
+        String newToken = loginAndGetToken("lm-new@example.com", "secret123");
+        long newUser = currentUserId(newToken);
+        createPost(oldUser, oldToken);
+        createPost(newUser, newToken);
+
+        // lists are validated by ETag only: the newest updatedAt can't see a delete
+        mockMvc.perform(get("/api/posts").header("Authorization", bearer(newToken)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().doesNotExist("Last-Modified"));
+
+        // the older author goes, and their post with them; the newest post is untouched
+        mockMvc.perform(delete("/api/users/{id}", oldUser).header("Authorization", bearer(newToken)))
+                .andExpect(status().isNoContent());
+
+        String later = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1));
+        mockMvc.perform(get("/api/posts")
+                        .header("Authorization", bearer(newToken))
+                        .header("If-Modified-Since", later))
+                .andExpect(status().isOk());
     }
 
+    private void createPost(long userId, String token) throws Exception {
+        mockMvc.perform(post("/api/posts/user/{id}", userId)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        { "title": "Dated", "content": "x" }
+                        """))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,42 @@
+package com.example.demo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every statement is over budget here, so any request that touches the database is an N+1 suspect.
+@TestPropertySource(properties = "app.sql.max-per-request=0")
+class QueryBudgetTests extends BaseIntegrationTest {
+
+    @Autowired MeterRegistry registry;
+
+    @Test
+    void request_over_statement_budget_is_counted() throws Exception {
+        register("budget@example.com", "secret123");
+        String token = loginAndGetToken("budget@example.com", "secret123");
+        long id = currentUserId(token);
+        double before = exceeded().count();
+
+        mockMvc.perform(post("/api/posts/user/{userId}", id)
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"title":"Over budget","content":"x"}
+                """))
+                .andExpect(status().isOk());
+
+        assertThat(exceeded().count()).isEqualTo(before + 1);
+    }
+
+    private Counter exceeded() {
+        return registry.counter("http.server.requests.queries.exceeded",
+                "method", "POST", "uri", "/api/posts/user/{userId}");
+    }
+}
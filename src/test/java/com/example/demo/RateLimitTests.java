@@ -0,0 +1,94 @@
+package com.example.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(properties = {
+        "app.ratelimit.enabled=true",
+        "app.ratelimit.login=2/PT1H",
+        "app.ratelimit.api=3/PT1H"
+})
+class RateLimitTests extends BaseIntegrationTest {
+
+    private final ObjectMapper om = new ObjectMapper();
+
+    @Test
+    void login_over_budget_429_with_retry_after() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            login("nobody@example.com", "secret123", from("10.0.0.1"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        login("nobody@example.com", "secret123", from("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", matchesPattern("\\d+")))
+                .andExpect(jsonPath("$.status").value(429));
+
+        // another client still has its own budget
+        login("nobody@example.com", "secret123", from("10.0.0.2"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void api_budget_is_per_user() throws Exception {
+        register("rl-a@example.com", "secret123");
+        register("rl-b@example.com", "secret123");
+        String a = token("rl-a@example.com");
+        String b = token("rl-b@example.com");
+
+        // a token's first request counts against the address: the limiter only trusts verified tokens
+        mockMvc.perform(get("/api/me").with(from("10.0.0.4")).header("Authorization", bearer(a)))
+                .andExpect(status().isOk());
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/me").header("Authorization", bearer(a)))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/me").header("Authorization", bearer(a)))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/api/me").with(from("10.0.0.5")).header("Authorization", bearer(b)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void forged_tokens_are_limited_per_address() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/me").with(from("10.0.0.6")).header("Authorization", bearer("junk-" + i)))
+                    .andExpect(status().isForbidden());
+        }
+        mockMvc.perform(get("/api/me").with(from("10.0.0.6")).header("Authorization", bearer("junk-3")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private ResultActions login(String email, String password, RequestPostProcessor client) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .with(client)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                  {"email":"%s","password":"%s"}
+                """.formatted(email, password)));
+    }
+
+    private String token(String email) throws Exception {
+        String json = login(email, "secret123", from("10.0.0.3"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return om.readTree(json).get("token").asText();
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
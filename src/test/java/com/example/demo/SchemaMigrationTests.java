@@ -0,0 +1,26 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The schema comes from Flyway only: Hibernate validates it against the entities on startup.
+@SpringBootTest(properties = {"spring.jpa.hibernate.ddl-auto=validate", "app.jwt.revocation.snapshot-file="})
+class SchemaMigrationTests {
+
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void migrations_match_entities_and_create_indexes() {
+        List<String> indexes = jdbc.queryForList(
+                "select lower(index_name) from information_schema.indexes where lower(table_name) = 'posts'",
+                String.class);
+
+        assertThat(indexes).contains("idx_post_user_id", "idx_post_created_at_id", "idx_post_updated_at");
+    }
+}
@@ -52,7 +52,42 @@ class UserControllerTests extends BaseMvcNoSecurityTest {
                 .andExpect(jsonPath("$.email").value("g@example.com"));
 
         mockMvc.perform(get("/api/users/{id}", 999999))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.error").value("Not Found"))
+                .andExpect(jsonPath("$.message").value("User not found"))
+                .andExpect(jsonPath("$.path").value("/api/users/999999"))
+                .andExpect(jsonPath("$.timestamp").exists());
+    }
+
+    @Test
+    void get_by_id_served_from_cache_until_updated_200() throws Exception {
+        var res = mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                  {"email":"cached@example.com","password":"secret123","firstName":"Before"}
+                """)).andReturn();
+        String id = res.getResponse().getContentAsString().replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        String etag = mockMvc.perform(get("/api/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Before"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/users/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/users/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"firstName":"After"}
+                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.firstName").value("After"));
     }
 
     @Test
@@ -82,6 +117,33 @@ class UserControllerTests extends BaseMvcNoSecurityTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void import_users_skips_duplicates_and_existing_200() throws Exception {
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"email":"imp-existing@example.com","password":"secret123"}
+                """))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/users/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                  {"email":"imp1@example.com","password":"secret123","firstName":"Imp"}
+                  {"email":"imp2@example.com","password":"secret123"}
+                  {"email":"imp1@example.com","password":"secret123"}
+                  {"email":"imp-existing@example.com","password":"secret123"}
+                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(4))
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.skipped").value(2));
+
+        mockMvc.perform(get("/api/users/search").param("email", "imp1@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Imp"));
+    }
+
     @Test
     void delete_user_204_then_404() throws Exception {
         var res = mockMvc.perform(post("/api/users")
@@ -0,0 +1,92 @@
+package com.example.demo;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Guards against N+1 on GET /api/users: statement count must not grow with the number of users.
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserListingQueryCountTests extends BaseMvcNoSecurityTest {
+
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void list_with_posts_statement_count_is_constant() throws Exception {
+        seedUsersWithPosts("few", 2);
+        long few = statementsFor("/api/users?include=posts&size=500");
+
+        seedUsersWithPosts("many", 10);
+        long many = statementsFor("/api/users?include=posts&size=500");
+
+        assertThat(many).isEqualTo(few);
+        // users page + one batched posts query, plus the two count/max(updatedAt) stamps for the ETag
+        assertThat(few).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void list_without_include_has_no_posts() throws Exception {
+        seedUsersWithPosts("plain", 1);
+
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].posts").doesNotExist());
+    }
+
+    @Test
+    void search_by_email_is_served_from_query_and_entity_cache() throws Exception {
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                  {"email":"l2-cached@example.com","password":"secret123"}
+                """))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/users/search").param("email", "l2-cached@example.com"))
+                .andExpect(status().isOk());
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mockMvc.perform(get("/api/users/search").param("email", "l2-cached@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("l2-cached@example.com"));
+
+        assertThat(stats.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(stats.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    private long statementsFor(String url) throws Exception {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return stats.getPrepareStatementCount();
+    }
+
+    private void seedUsersWithPosts(String prefix, int users) throws Exception {
+        for (int i = 0; i < users; i++) {
+            var res = mockMvc.perform(post("/api/users")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                      {"email":"%s-%d@example.com","password":"secret123"}
+                    """.formatted(prefix, i)))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            String id = res.getResponse().getContentAsString().replaceAll(".*\"id\":(\\d+).*", "$1");
+
+            for (int p = 0; p < 2; p++) {
+                mockMvc.perform(post("/api/posts/user/{id}", id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                          { "title": "Post %d", "content": "body" }
+                        """.formatted(p)))
+                        .andExpect(status().isOk());
+            }
+        }
+    }
+}
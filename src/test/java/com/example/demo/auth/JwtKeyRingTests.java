@@ -0,0 +1,93 @@
+package com.example.demo.auth;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTests {
+
+    @TempDir Path dir;
+
+    private JwtKeyRing ring;
+
+    @AfterEach
+    void tearDown() {
+        if (ring != null) ring.shutdown();
+    }
+
+    @Test
+    void newest_key_signs_and_older_tokens_verify_until_their_key_is_removed() throws Exception {
+        writePair("k1", Keys.keyPairFor(SignatureAlgorithm.RS256), Instant.now().minusSeconds(60));
+        ring = new JwtKeyRing("RS256", dir.toString(), Duration.ofHours(1));
+        JwtService jwt = new JwtService(ring, new SimpleMeterRegistry(), 100, 1.0, Duration.ofHours(1), Duration.ofDays(14));
+
+        String oldToken = jwt.generate("rotate@example.com");
+        assertThat(ring.signer().kid()).isEqualTo("k1");
+        assertThat(ring.signer().algorithm()).isEqualTo(SignatureAlgorithm.RS256);
+
+        writePair("k2", Keys.keyPairFor(SignatureAlgorithm.ES256), Instant.now());
+        ring.reload();
+
+        assertThat(ring.signer().kid()).isEqualTo("k2");
+        assertThat(ring.signer().algorithm()).isEqualTo(SignatureAlgorithm.ES256);
+        assertThat(jwt.validateAndGetSubject(oldToken)).isEqualTo("rotate@example.com");
+        assertThat(jwt.validateAndGetSubject(jwt.generate("new@example.com"))).isEqualTo("new@example.com");
+        assertThat(kids(ring.jwks())).containsExactlyInAnyOrder("k1", "k2");
+
+        Files.delete(dir.resolve("k1.key.pem"));
+        Files.delete(dir.resolve("k1.pub.pem"));
+        ring.reload();
+
+        assertThat(ring.verifier("k1")).isNull();
+        assertThat(kids(ring.jwks())).containsExactly("k2");
+        // also when the token is still in the verified-token cache
+        assertThatThrownBy(() -> jwt.validate(oldToken)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void private_key_without_public_half_never_signs() throws Exception {
+        writePair("k1", Keys.keyPairFor(SignatureAlgorithm.RS256), Instant.now().minusSeconds(60));
+        ring = new JwtKeyRing("RS256", dir.toString(), Duration.ofHours(1));
+
+        KeyPair orphan = Keys.keyPairFor(SignatureAlgorithm.RS256);
+        Files.writeString(dir.resolve("k2.key.pem"), pem("PRIVATE KEY", orphan.getPrivate().getEncoded()));
+        ring.reload();
+
+        assertThat(ring.signer().kid()).isEqualTo("k1");
+    }
+
+    private void writePair(String kid, KeyPair pair, Instant modified) throws Exception {
+        Path priv = Files.writeString(dir.resolve(kid + ".key.pem"), pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+        Path pub = Files.writeString(dir.resolve(kid + ".pub.pem"), pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+        Files.setLastModifiedTime(priv, FileTime.from(modified));
+        Files.setLastModifiedTime(pub, FileTime.from(modified));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> kids(Map<String, Object> jwks) {
+        return ((List<Map<String, Object>>) jwks.get("keys")).stream().map(k -> (String) k.get("kid")).toList();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationListTests {
+    private static final Duration TTL = Duration.ofDays(14);
+
+    @TempDir Path dir;
+
+    private final List<RevocationList> lists = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        lists.forEach(RevocationList::shutdown);
+    }
+
+    @Test
+    void revoked_ids_survive_a_restart_through_the_snapshot() throws Exception {
+        RevocationList revocations = open(dir.resolve("revoked.bin"));
+        assertThat(revocations.revoke("a", inOneHour())).isTrue();
+        assertThat(revocations.revoke("a", inOneHour())).isFalse(); // already there
+        assertThat(revocations.revoke("b", System.currentTimeMillis() - 1)).isFalse(); // already expired
+        revocations.snapshot();
+
+        RevocationList restarted = open(dir.resolve("revoked.bin"));
+        assertThat(restarted.isRevoked("a")).isTrue();
+        assertThat(restarted.isRevoked("b")).isFalse();
+        assertThat(restarted.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void ids_are_kept_for_one_generation_after_the_one_they_were_revoked_in() {
+        RevocationList revocations = open(null);
+        long now = System.currentTimeMillis();
+        revocations.revoke("a", inOneHour());
+
+        revocations.rotate(now + TTL.toMillis());
+        assertThat(revocations.isRevoked("a")).isTrue();
+
+        revocations.rotate(now + 2 * TTL.toMillis());
+        assertThat(revocations.isRevoked("a")).isFalse();
+    }
+
+    @Test
+    void concurrent_revokes_of_one_id_succeed_once() throws Exception {
+        RevocationList revocations = open(null);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 200; round++) {
+                String jti = "jti-" + round;
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    results.add(pool.submit(() -> {
+                        go.await();
+                        return revocations.revoke(jti, inOneHour());
+                    }));
+                }
+                go.countDown();
+                int won = 0;
+                for (Future<Boolean> r : results) {
+                    if (r.get()) won++;
+                }
+                assertThat(won).as("round %d", round).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void false_positive_rate_stays_near_the_configured_one() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+        }
+        assertThat(falsePositives).isLessThan(2_000); // 1% expected
+    }
+
+    private RevocationList open(Path snapshot) {
+        RevocationList list = new RevocationList(new SimpleMeterRegistry(), TTL, 1_000, 0.000001,
+                snapshot == null ? "" : snapshot.toString(), Duration.ofHours(1));
+        lists.add(list);
+        return list;
+    }
+
+    private static long inOneHour() {
+        return System.currentTimeMillis() + 3_600_000;
+    }
+}
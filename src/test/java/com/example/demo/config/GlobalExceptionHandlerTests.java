@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GlobalExceptionHandlerTests {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new LosingWriter())
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void update_losing_an_optimistic_lock_409() throws Exception {
+        mockMvc.perform(put("/users/{id}", 7))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.path").value("/users/7"));
+    }
+
+    /** Fails the way a PUT /api/users/{id} does when another write bumped User.version first. */
+    @RestController
+    static class LosingWriter {
+        @PutMapping("/users/{id}")
+        void update(@PathVariable Long id) {
+            throw new ObjectOptimisticLockingFailureException(User.class, id);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.controller;
+
+import com.example.demo.repository.VersionStamp;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonResponseCacheTests {
+    private static final String KEY = JsonResponseCache.POSTS + "first/20";
+
+    private final JsonResponseCache responses =
+            new JsonResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), true, DataSize.ofMegabytes(1));
+    private final VersionStamp stamp = new VersionStamp(1L, LocalDateTime.now());
+
+    @Test
+    void repeated_read_is_served_from_the_cache() {
+        AtomicInteger built = new AtomicInteger();
+        assertThat(body(get(() -> "v" + built.incrementAndGet()))).isEqualTo("\"v1\"");
+        assertThat(body(get(() -> "v" + built.incrementAndGet()))).isEqualTo("\"v1\"");
+        assertThat(built).hasValue(1);
+    }
+
+    @Test
+    void body_built_before_an_eviction_is_not_kept() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+
+        // a reader that loaded its rows before the write committed, and serializes slowly
+        CompletableFuture<ResponseEntity<byte[]>> slow = CompletableFuture.supplyAsync(() -> get(() -> {
+            building.countDown();
+            await(evicted);
+            return "stale";
+        }));
+        assertThat(building.await(5, TimeUnit.SECONDS)).isTrue();
+        responses.evict(JsonResponseCache.POSTS);
+        evicted.countDown();
+        assertThat(body(slow.get(5, TimeUnit.SECONDS))).isEqualTo("\"stale\"");
+
+        assertThat(body(get(() -> "fresh"))).isEqualTo("\"fresh\"");
+    }
+
+    private ResponseEntity<byte[]> get(Supplier<?> body) {
+        ServletWebRequest request = new ServletWebRequest(
+                new MockHttpServletRequest("GET", "/api/posts"), new MockHttpServletResponse());
+        return responses.respond(request, KEY, () -> stamp, body);
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("never released");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
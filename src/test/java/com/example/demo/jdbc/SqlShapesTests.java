@@ -0,0 +1,28 @@
+package com.example.demo.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlShapesTests {
+
+    @Test
+    void in_lists_of_any_length_share_a_shape() {
+        String two = SqlShapes.normalize("select p1_0.id from posts p1_0 where p1_0.user_id in (?,?)");
+        String five = SqlShapes.normalize("select p1_0.id from posts p1_0 where p1_0.user_id in ( ?, ?, ?, ?, ? )");
+
+        assertThat(two).isEqualTo(five)
+                .isEqualTo("select p1_0.id from posts p1_0 where p1_0.user_id in (?...)");
+    }
+
+    @Test
+    void literals_are_folded_but_aliases_kept() {
+        assertThat(SqlShapes.normalize("select u1_0.id from users u1_0 where u1_0.email = 'a''b@x.io'\n  and u1_0.id > 42"))
+                .isEqualTo("select u1_0.id from users u1_0 where u1_0.email = ? and u1_0.id > ?");
+    }
+
+    @Test
+    void long_statements_are_truncated() {
+        assertThat(SqlShapes.normalize("select " + "x,".repeat(500) + "y from t")).hasSize(SqlShapes.MAX_LENGTH);
+    }
+}
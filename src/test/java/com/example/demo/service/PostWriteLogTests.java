@@ -0,0 +1,69 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostWriteLogTests {
+
+    @TempDir Path dir;
+
+    @Test
+    void records_roll_over_segments_and_survive_reopen() {
+        PostWriteLog log = new PostWriteLog(dir, 64, false);
+        log.open(PostWriteLog.Position.START);
+        for (int i = 0; i < 5; i++) log.append(("post-" + i).getBytes(StandardCharsets.UTF_8));
+        log.close();
+
+        PostWriteLog reopened = new PostWriteLog(dir, 64, false);
+        assertThat(reopened.open(PostWriteLog.Position.START)).isEqualTo(5);
+        List<PostWriteLog.Entry> entries = reopened.read(PostWriteLog.Position.START, 10);
+
+        assertThat(entries).extracting(PostWriteLog.Entry::ticket).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(new String(entries.get(4).payload(), StandardCharsets.UTF_8)).isEqualTo("post-4");
+        assertThat(reopened.append("next".getBytes(StandardCharsets.UTF_8))).isEqualTo(6);
+    }
+
+    @Test
+    void torn_tail_record_is_dropped_on_recovery() throws Exception {
+        PostWriteLog log = new PostWriteLog(dir, 1024, false);
+        log.open(PostWriteLog.Position.START);
+        log.append("kept".getBytes(StandardCharsets.UTF_8));
+        log.append("torn".getBytes(StandardCharsets.UTF_8));
+        log.close();
+
+        // corrupt one payload byte of the second record, as if the process died mid-write
+        int second = PostWriteLog.HEADER + 4;
+        try (FileChannel ch = FileChannel.open(dir.resolve("%020d.log".formatted(1)), StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{'X'}), second + PostWriteLog.HEADER);
+        }
+
+        PostWriteLog recovered = new PostWriteLog(dir, 1024, false);
+        assertThat(recovered.open(PostWriteLog.Position.START)).isEqualTo(1);
+        assertThat(recovered.read(PostWriteLog.Position.START, 10)).hasSize(1);
+        assertThat(recovered.append("again".getBytes(StandardCharsets.UTF_8))).isEqualTo(2);
+    }
+
+    @Test
+    void log_of_another_database_is_refused() {
+        PostWriteLog log = new PostWriteLog(dir, 1024, false);
+        log.bind("db-1");
+        log.open(PostWriteLog.Position.START);
+        log.append("from db-1".getBytes(StandardCharsets.UTF_8));
+        log.close();
+
+        new PostWriteLog(dir, 1024, false).bind("db-1"); // same database: fine
+        assertThatThrownBy(() -> new PostWriteLog(dir, 1024, false).bind("db-2"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("db-1");
+    }
+}